@@ -0,0 +1,102 @@
+package com.jdbaptista.app;
+
+import com.jdbaptista.app.material.Container;
+import com.jdbaptista.app.sample.SampleInput;
+import com.jdbaptista.app.sample.SampleInputBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Inputs of any size for the benchmarks, the same for every run of a size. Files are written with {@link SampleInput}.
+ */
+public class BenchmarkData {
+    public static final String[] ADDRESSES = names("Jobsite ", 10);
+    public static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkData() {}
+
+    /**
+     * Writes Dailies.xlsx with the given number of shifts spread over two years, and Salaries.xlsx and
+     * WCPercentages.xlsx covering every worker and code of them, to a folder.
+     */
+    public static void writeLaborInput(File folder, int rows) throws IOException {
+        SampleInput input = new SampleInputBuilder()
+                .setSeed(rows)
+                .setStart(START)
+                .setDays(730)
+                .setShifts(rows)
+                .setWorkers(40)
+                .setAddresses(ADDRESSES.length)
+                .setRateChangeDays(180)
+                .build();
+        input.writeDailies(new File(folder, SampleInput.DAILIES));
+        input.writeSalaries(new File(folder, SampleInput.SALARIES));
+        input.writeWorkComp(new File(folder, SampleInput.WORK_COMP));
+    }
+
+    /**
+     * Writes Salaries.xlsx of 40 workers with the given number of dated rows, one a week.
+     */
+    public static void writeSalaries(File file, int rows) throws IOException {
+        new SampleInputBuilder()
+                .setSeed(rows)
+                .setStart(START)
+                .setDays(rows * 7)
+                .setWorkers(40)
+                .setRateChangeDays(7)
+                .build()
+                .writeSalaries(file);
+    }
+
+    /**
+     * @return Receipts of one week, sorted the way {@link com.jdbaptista.app.material.MaterialsGenerator} hands them
+     * to its formatter.
+     */
+    public static Container[] receipts(int rows) {
+        Random random = new Random(rows);
+        String[] vendors = names("Vendor ", 50);
+        Container[] ret = new Container[rows];
+        for (int i = 0; i < rows; i++) {
+            ret[i] = new Container(ADDRESSES[random.nextInt(ADDRESSES.length)], vendors[random.nextInt(vendors.length)],
+                    START.plusDays(random.nextInt(7)), random.nextInt(100_000) / 100.0);
+        }
+        Arrays.sort(ret, Comparator.comparing(Container::address)
+                .thenComparing(Container::vendor)
+                .thenComparing(Container::date)
+                .thenComparing(Container::amount));
+        return ret;
+    }
+
+    /**
+     * @return A new empty folder, deleted with its files when the benchmark ends.
+     */
+    public static File tempFolder() throws IOException {
+        File ret = Files.createTempDirectory("rrb-benchmark").toFile();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(ret)));
+        return ret;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static String[] names(String prefix, int count) {
+        String[] ret = new String[count];
+        for (int i = 0; i < count; i++) {
+            ret[i] = prefix + (i + 1);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,44 @@
+package com.jdbaptista.app;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Runs the benchmarks with the GC profiler and sums up how many bytes each one allocated per input row, for benchmarks
+ * with a "rows" parameter whose every operation goes through all of the rows. Takes the usual JMH command line, for
+ * example a regular expression of the benchmarks to run.
+ */
+public class Benchmarks {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .parent(options)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+
+        System.out.println();
+        System.out.printf("%-70s %10s %14s%n", "Benchmark", "rows", "bytes/row");
+        for (RunResult result : results) {
+            String rows = result.getParams().getParam("rows");
+            Result allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (rows == null || allocated == null) continue;
+            String name = result.getParams().getBenchmark();
+            StringBuilder params = new StringBuilder();
+            for (String key : result.getParams().getParamsKeys()) {
+                if (!key.equals("rows")) {
+                    params.append(':').append(key).append('=').append(result.getParams().getParam(key));
+                }
+            }
+            System.out.printf("%-70s %10s %14.1f%n", name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1)
+                    + params, rows, allocated.getScore() / Integer.parseInt(rows));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.labor.error.DatedTableException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate lookups in tables of a growing number of date ranges per column. Each operation is one lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatedTableBenchmark {
+    private static final int COLUMNS = 20;
+    private static final int LOOKUPS = 1024;
+
+    @Param({"4", "64", "1024"})
+    int ranges;
+
+    private DoubleDatedTable table;
+    private int[] columnIds;
+    private int[] epochDays;
+
+    @Setup
+    public void setUp() throws DatedTableException {
+        table = new DoubleDatedTable();
+        Random random = new Random(ranges);
+        LocalDate start = LocalDate.of(2000, 1, 1);
+        for (int column = 0; column < COLUMNS; column++) {
+            table.addColumn("Column " + column, column);
+        }
+        for (int range = 0; range < ranges; range++) {
+            LocalDate date = start.plusDays(range * 7L);
+            for (int column = 0; column < COLUMNS; column++) {
+                double value = random.nextInt(10_000) / 100.0;
+                table.addRangeByColNum(column, value, date);
+            }
+        }
+
+        columnIds = new int[LOOKUPS];
+        epochDays = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            columnIds[i] = table.getColumnId("Column " + random.nextInt(COLUMNS));
+            epochDays[i] = (int) start.plusDays(random.nextInt(ranges * 7)).toEpochDay();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void doubleDatedTableGetValue(Blackhole blackhole) throws DatedTableException {
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole.consume(table.getValue(columnIds[i], epochDays[i]));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.BenchmarkData;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the reports of a calculated input of a growing number of rows, each operation every report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FormatterBenchmark {
+    @Param({"1000", "10000"})
+    int rows;
+
+    @Param({"true", "false"})
+    boolean streamingOutput;
+
+    private File folder;
+    private ArrayList<Job> jobs;
+
+    @Setup
+    public void setUp() throws Exception {
+        folder = BenchmarkData.tempFolder();
+        BenchmarkData.writeLaborInput(folder, rows);
+        LaborGenerator generator = LaborGeneratorBenchmark.createGenerator(folder, true);
+        generator.parseData();
+        generator.calculate(DoubleDatedTable.loadExcelData(new File(folder, "WCPercentages.xlsx")),
+                DoubleDatedTable.loadExcelData(new File(folder, "Salaries.xlsx")));
+        jobs = generator.getJobs();
+    }
+
+    @Benchmark
+    public long writeJob() throws IOException {
+        long cells = 0;
+        for (Job job : jobs) {
+            Workbook wb = streamingOutput ? new SXSSFWorkbook(100) : new XSSFWorkbook();
+            Formatter formatter = new Formatter(wb, folder.getPath());
+            formatter.writeJob(job);
+            cells += formatter.getCellCount();
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and calculating a shift input of a growing number of rows, each operation the whole input. The rate tables
+ * are loaded once beforehand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LaborGeneratorBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int rows;
+
+    @Param({"true", "false"})
+    boolean streamingInput;
+
+    private File folder;
+    private DoubleDatedTable wcData;
+    private DoubleDatedTable salaryData;
+
+    @Setup
+    public void setUp() throws Exception {
+        folder = BenchmarkData.tempFolder();
+        BenchmarkData.writeLaborInput(folder, rows);
+        wcData = DoubleDatedTable.loadExcelData(new File(folder, "WCPercentages.xlsx"));
+        salaryData = DoubleDatedTable.loadExcelData(new File(folder, "Salaries.xlsx"));
+    }
+
+    @Benchmark
+    public ArrayList<Job> parseAndCalculate() throws Exception {
+        LaborGenerator generator = createGenerator(folder, streamingInput);
+        generator.parseData();
+        generator.calculate(wcData, salaryData);
+        return generator.getJobs();
+    }
+
+    /**
+     * @return A generator of the input written by {@link BenchmarkData#writeLaborInput}, writing its reports to the
+     * same folder.
+     */
+    static LaborGenerator createGenerator(File folder, boolean streamingInput) throws Exception {
+        return new LaborGeneratorBuilder()
+                .setInFile(new File(folder, "Dailies.xlsx"))
+                .setWorkCompFile(new File(folder, "WCPercentages.xlsx"))
+                .setSalaryFile(new File(folder, "Salaries.xlsx"))
+                .setOutFolder(folder.getPath())
+                .setStreamingInput(streamingInput)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.BenchmarkData;
+import com.jdbaptista.app.labor.error.DatedTableException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a rate file of a growing number of dated rows, each operation the whole file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RateTableLoadBenchmark {
+    @Param({"10", "100", "1000"})
+    int rows;
+
+    private File rates;
+    private File snapshotFolder;
+
+    @Setup
+    public void setUp() throws IOException, DatedTableException {
+        File folder = BenchmarkData.tempFolder();
+        rates = new File(folder, "Salaries.xlsx");
+        BenchmarkData.writeSalaries(rates, rows);
+        snapshotFolder = new File(folder, "snapshots");
+        snapshotFolder.mkdir();
+        DatedTableSnapshot.load(rates, snapshotFolder.getPath());
+    }
+
+    @Benchmark
+    public DoubleDatedTable loadExcelData() throws IOException, DatedTableException {
+        return DoubleDatedTable.loadExcelData(rates);
+    }
+
+    @Benchmark
+    public DoubleDatedTable loadSnapshot() throws IOException, DatedTableException {
+        return DatedTableSnapshot.load(rates, snapshotFolder.getPath());
+    }
+}
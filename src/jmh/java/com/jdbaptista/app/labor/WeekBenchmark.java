@@ -0,0 +1,51 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totalling every week of a calculated input of a growing number of rows, each operation every week.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeekBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int rows;
+
+    private ArrayList<Week> weeks;
+
+    @Setup
+    public void setUp() throws Exception {
+        File folder = BenchmarkData.tempFolder();
+        BenchmarkData.writeLaborInput(folder, rows);
+        LaborGenerator generator = LaborGeneratorBenchmark.createGenerator(folder, true);
+        generator.parseData();
+        generator.calculate(DoubleDatedTable.loadExcelData(new File(folder, "WCPercentages.xlsx")),
+                DoubleDatedTable.loadExcelData(new File(folder, "Salaries.xlsx")));
+        weeks = new ArrayList<>();
+        for (Job job : generator.getJobs()) {
+            weeks.addAll(job.getWeeks());
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Week> calculateTotals() {
+        for (Week week : weeks) {
+            // totals add up, so each operation starts from none as the generator does.
+            week.dailyTotals = new HashMap<>();
+            week.taskTotals = new HashMap<>();
+            week.calculateDailyTotals();
+            week.calculateTaskTotals();
+        }
+        return weeks;
+    }
+}
@@ -0,0 +1,38 @@
+package com.jdbaptista.app.material;
+
+import com.jdbaptista.app.BenchmarkData;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing one week of a growing number of receipts into a sheet, each operation the whole week. The workbook is not
+ * saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FormatterBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int rows;
+
+    private Container[] receipts;
+
+    @Setup
+    public void setUp() {
+        receipts = BenchmarkData.receipts(rows);
+    }
+
+    @Benchmark
+    public XSSFWorkbook writeWeek() throws IOException {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        new Formatter(wb).writeWeek(wb.createSheet("1_7_2020"), receipts, "Week Ending 1_7_2020");
+        wb.close();
+        return wb;
+    }
+}
@@ -0,0 +1,157 @@
+package com.jdbaptista.app;
+
+import com.jdbaptista.app.labor.LaborGenerator;
+import com.jdbaptista.app.labor.LaborGeneratorBuilder;
+import com.jdbaptista.app.labor.error.LaborGeneratorException;
+import com.jdbaptista.app.material.MaterialsGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Runs either generator from the command line without starting JavaFX, for scheduled batch jobs. Nothing here may
+ * load a JavaFX class. Paths default to the ones used by {@link GUIController}, and the labor report runs with the
+ * same settings unless told otherwise. Every run is added to the run report of its generator, see
+ * {@link LaborGenerator#RUN_REPORT} and {@link MaterialsGenerator#RUN_REPORT}.
+ * <pre>
+ * labor [--in FILE] [--work-comp FILE] [--salaries FILE] [--out FOLDER] [--threads N]
+ *       [--pipelined] [--full] [--in-memory] [--no-snapshots]
+ * materials [--in FOLDER] [--out FILE] [--threads N]
+ * </pre>
+ * Exits with {@link Batch#SUCCESS}, {@link Batch#FAILED} if a report could not be generated, or {@link Batch#USAGE}
+ * if the arguments or input files are invalid.
+ */
+public class Batch {
+    public static final int SUCCESS = 0;
+    public static final int FAILED = 1;
+    public static final int USAGE = 2;
+
+    private static final String USAGE_TEXT = """
+            usage: labor [--in FILE] [--work-comp FILE] [--salaries FILE] [--out FOLDER] [--threads N]
+                         [--pipelined] [--full] [--in-memory] [--no-snapshots]
+                   materials [--in FOLDER] [--out FILE] [--threads N]
+              --threads N     write N labor reports or read N receipt files at once
+              --pipelined     write each labor report while the input is still read
+              --full          write every labor report again and read the whole input
+              --in-memory     read and write workbooks in memory instead of streaming them
+              --no-snapshots  load rate files from the workbooks every run
+            """;
+
+    private Batch() {}
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out));
+    }
+
+    /**
+     * Runs the generator named by the first argument.
+     * @param out Receives the log of the generator and any usage errors.
+     * @return The exit status.
+     */
+    public static int run(String[] args, PrintStream out) {
+        if (args.length == 0) {
+            out.print(USAGE_TEXT);
+            return USAGE;
+        }
+        try {
+            switch (args[0]) {
+                case "labor":
+                    return runLabor(args, out);
+                case "materials":
+                    return runMaterials(args, out);
+                default:
+                    throw new IllegalArgumentException("Unknown report " + args[0] + ".");
+            }
+        } catch (IllegalArgumentException | LaborGeneratorException e) {
+            out.println(e.getMessage());
+            out.print(USAGE_TEXT);
+            return USAGE;
+        } catch (IOException e) {
+            e.printStackTrace();
+            out.println("Failed to write the log: " + e.getMessage());
+            return FAILED;
+        }
+    }
+
+    private static int runLabor(String[] args, PrintStream out) throws LaborGeneratorException, IOException {
+        File inFile = new File("files/input/Dailies.xlsx");
+        File workCompFile = new File("files/input/WCPercentages.xlsx");
+        File salaryFile = new File("files/input/Salaries.xlsx");
+        String outFolder = "files/output";
+        int threads = 1;
+        boolean pipelined = false;
+        boolean full = false;
+        boolean inMemory = false;
+        boolean snapshots = true;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--in" -> inFile = new File(value(args, ++i));
+                case "--work-comp" -> workCompFile = new File(value(args, ++i));
+                case "--salaries" -> salaryFile = new File(value(args, ++i));
+                case "--out" -> outFolder = value(args, ++i);
+                case "--threads" -> threads = parseCount(args[i], value(args, ++i));
+                case "--pipelined" -> pipelined = true;
+                case "--full" -> full = true;
+                case "--in-memory" -> inMemory = true;
+                case "--no-snapshots" -> snapshots = false;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+            }
+        }
+        boolean successful = new LaborGeneratorBuilder()
+                .setInFile(inFile)
+                .setWorkCompFile(workCompFile)
+                .setSalaryFile(salaryFile)
+                .setOutFolder(outFolder)
+                .setOutputLog(out)
+                .setStreamingInput(!inMemory)
+                .setStreamingOutput(!inMemory)
+                .setParallelism(threads)
+                .setSkipUnchanged(!full)
+                // incremental input cannot be pipelined.
+                .setIncrementalInput(!full && !pipelined)
+                .setRateSnapshots(snapshots)
+                .setPipelined(pipelined)
+                .setRunReport(true)
+                .build()
+                .run();
+        return successful ? SUCCESS : FAILED;
+    }
+
+    private static int runMaterials(String[] args, PrintStream out) {
+        String inFolder = "files/input/Weekly Receipts";
+        String outFile = "files/output/Materials Reports";
+        int threads = 1;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--in" -> inFolder = value(args, ++i);
+                case "--out" -> outFile = value(args, ++i);
+                case "--threads" -> threads = parseCount(args[i], value(args, ++i));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+            }
+        }
+        if (!new File(inFolder).isDirectory()) {
+            throw new IllegalArgumentException(inFolder + " is not a folder.");
+        }
+        MaterialsGenerator generator = new MaterialsGenerator(inFolder, outFile);
+        generator.setParallelism(threads);
+        generator.setRunReport(true);
+        out.print(generator.run());
+        return generator.isSuccessful() ? SUCCESS : FAILED;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a value.");
+        }
+        return args[i];
+    }
+
+    private static int parseCount(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " must be a number, was " + value + ".");
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.jdbaptista.app;
 import com.jdbaptista.app.labor.LaborGeneratorBuilder;
 import com.jdbaptista.app.labor.error.*;
 import com.jdbaptista.app.material.MaterialsGenerator;
+import com.jdbaptista.app.report.Progress;
+import com.jdbaptista.app.report.ProgressListener;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import com.jdbaptista.app.labor.LaborGenerator;
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.*;
 
@@ -19,30 +22,62 @@ public class GUIController {
     private Label resultText2;
 
     @FXML
-    protected void onLaborButtonClick() throws IOException, InvalidFormatException {
+    private Button laborButton;
+
+    @FXML
+    private Button materialButton;
+
+    @FXML
+    private ProgressBar progressBar;
+
+    @FXML
+    private Label progressText;
+
+    @FXML
+    private Button cancelButton;
+
+    /**
+     * The generator running in the background, only one at a time.
+     */
+    private ReportTask running;
+
+    @FXML
+    protected void onLaborButtonClick() {
         File inFile = new File("files/input/Dailies.xlsx");
         File configFile = new File("files/input/WCPercentages.xlsx");
         File salaryFile = new File("files/input/Salaries.xlsx");
-        XSSFWorkbook load = new XSSFWorkbook(salaryFile); // preloads apache poi, not sure what its loading, but...
         String outFolder = "files/output";
-        OutputStream outputStream = getStringOutputStream();
-        // get a valid instance of LaborGenerator from builder
-        LaborGenerator generator = null;
-        try {
-            generator = new LaborGeneratorBuilder()
-                    .setInFile(inFile)
-                    .setWorkCompFile(configFile)
-                    .setSalaryFile(salaryFile)
-                    .setOutFolder(outFolder)
-                    .setOutputLog(outputStream)
-                    .build();
-        } catch (Exception e) {
-            resultText.setText(e.getMessage());
-            System.out.println(e.getStackTrace());
-        }
-        generator.run();
-        resultText.setText(outputStream.toString());
-        outputStream.close();
+        ReportTask task = new ReportTask() {
+            @Override
+            protected String call() throws Exception {
+                OutputStream outputStream = getStringOutputStream();
+                // get a valid instance of LaborGenerator from builder
+                LaborGenerator generator;
+                try {
+                    generator = new LaborGeneratorBuilder()
+                            .setInFile(inFile)
+                            .setWorkCompFile(configFile)
+                            .setSalaryFile(salaryFile)
+                            .setOutFolder(outFolder)
+                            .setOutputLog(outputStream)
+                            .setStreamingInput(true)
+                            .setStreamingOutput(true)
+                            .setSkipUnchanged(true)
+                            .setIncrementalInput(true)
+                            .setRateSnapshots(true)
+                            .setProgressListener(this)
+                            .setRunReport(true)
+                            .build();
+                } catch (LaborGeneratorException e) {
+                    return e.getMessage();
+                }
+                onCancel(generator::cancel);
+                generator.run();
+                outputStream.close();
+                return outputStream.toString();
+            }
+        };
+        start(task, resultText);
     }
 
     private OutputStream getStringOutputStream() {
@@ -66,9 +101,103 @@ public class GUIController {
         String inFolder = "files/input/Weekly Receipts";
         String outFile = "files/output/Materials Reports";
 
-        MaterialsGenerator generator = new MaterialsGenerator(inFolder, outFile);
-        String result = generator.run();
-        resultText2.setText(result);
+        ReportTask task = new ReportTask() {
+            @Override
+            protected String call() {
+                MaterialsGenerator generator = new MaterialsGenerator(inFolder, outFile);
+                generator.setParallelism(Runtime.getRuntime().availableProcessors());
+                generator.setProgressListener(this);
+                generator.setRunReport(true);
+                onCancel(generator::cancel);
+                return generator.run();
+            }
+        };
+        start(task, resultText2);
     }
 
-}
\ No newline at end of file
+    @FXML
+    protected void onCancelClick() {
+        if (running != null) {
+            running.stop();
+            cancelButton.setDisable(true);
+        }
+    }
+
+    /**
+     * Runs a generator on a background thread so that the window stays responsive, showing its progress until it
+     * finishes and then its log in the result label.
+     */
+    private void start(ReportTask task, Label result) {
+        running = task;
+        setRunning(true);
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressText.textProperty().bind(task.messageProperty());
+        task.setOnSucceeded(event -> {
+            result.setText(task.getValue());
+            finish();
+        });
+        task.setOnFailed(event -> {
+            task.getException().printStackTrace();
+            result.setText(String.valueOf(task.getException()));
+            finish();
+        });
+        Thread thread = new Thread(task, "report generator");
+        // a closed window does not wait for the generator.
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void finish() {
+        running = null;
+        progressBar.progressProperty().unbind();
+        progressText.textProperty().unbind();
+        progressBar.setProgress(0);
+        progressText.setText("");
+        setRunning(false);
+    }
+
+    private void setRunning(boolean isRunning) {
+        laborButton.setDisable(isRunning);
+        materialButton.setDisable(isRunning);
+        cancelButton.setDisable(!isRunning);
+    }
+
+    /**
+     * A generator run in the background, passing its progress on to the bound controls. Cancelling asks the generator
+     * to stop instead of cancelling the task, so that the task only ends once the generator has and its log is shown.
+     */
+    private static abstract class ReportTask extends Task<String> implements ProgressListener {
+        private Runnable cancel;
+        private boolean stopped;
+
+        /**
+         * Sets how to stop the generator once it is created, stopping it at once if cancel was already clicked.
+         */
+        protected synchronized void onCancel(Runnable cancel) {
+            this.cancel = cancel;
+            if (stopped) cancel.run();
+        }
+
+        synchronized void stop() {
+            stopped = true;
+            if (cancel != null) cancel.run();
+        }
+
+        @Override
+        public void progress(String stage, long done, long total, double perSecond) {
+            if (total < 0) {
+                updateProgress(-1, 1);
+                updateMessage(String.format("%s: %,d (%,.0f/s)", stage, done, perSecond));
+                return;
+            }
+            updateProgress(done, total);
+            long secondsLeft = Progress.secondsLeft(done, total, perSecond);
+            if (secondsLeft < 0) {
+                updateMessage(String.format("%s: %,d of %,d", stage, done, total));
+            } else {
+                updateMessage(String.format("%s: %,d of %,d (%,.0f/s, about %ds left)", stage, done, total,
+                        perSecond, secondsLeft));
+            }
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.jdbaptista.app;
 
 public class Main {
     public static void main(String[] args) {
-        GUI.main(args);
+        // with arguments, reports are run headless and JavaFX is never loaded.
+        if (args.length > 0) {
+            Batch.main(args);
+        } else {
+            GUI.main(args);
+        }
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.labor.error.DatedTableException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Caches a {@link DoubleDatedTable} loaded from a spreadsheet as a compact binary snapshot, so that a rate file that
+ * did not change since the last run is read without opening it through POI. A snapshot is kept in the snapshot folder
+ * under the name of its source file and records the source's canonical path, size, and modification time; it is only
+ * used while all three still match, otherwise the source is loaded with {@link DoubleDatedTable#loadExcelData(File)}
+ * and the snapshot written again. Snapshots are read through a memory mapped buffer.
+ */
+public class DatedTableSnapshot {
+    private static final int MAGIC = 0x52524253;
+    private static final int VERSION = 1;
+
+    private DatedTableSnapshot() {}
+
+    /**
+     * Loads a rate table, from its snapshot if the source did not change.
+     * @param source The .xlsx file the table is loaded from.
+     * @param snapshotFolder The folder the snapshot is kept in. A snapshot that cannot be written is skipped, the
+     *                       table is still returned.
+     * @return The loaded table.
+     * @throws IOException The source could not be read.
+     * @throws DatedTableException The source is not laid out as described in
+     * {@link DoubleDatedTable#loadExcelData(File)}.
+     */
+    public static DoubleDatedTable load(File source, String snapshotFolder) throws IOException, DatedTableException {
+        File snapshot = getSnapshotFile(source, snapshotFolder);
+        DoubleDatedTable ret = read(source, snapshot);
+        if (ret != null) {
+            return ret;
+        }
+        // keyed by the source as it was before loading, so a change made while loading is picked up next run.
+        long length = source.length();
+        long lastModified = source.lastModified();
+        ret = DoubleDatedTable.loadExcelData(source);
+        try {
+            write(source, length, lastModified, snapshot, ret);
+        } catch (IOException e) {
+            // only costs the next run a reload.
+            e.printStackTrace();
+        }
+        return ret;
+    }
+
+    /**
+     * @return The file holding the snapshot of a source.
+     */
+    public static File getSnapshotFile(File source, String snapshotFolder) {
+        return new File(snapshotFolder, "." + source.getName() + ".snapshot");
+    }
+
+    /**
+     * @return The table of the snapshot, or null if there is no usable snapshot of the source as it is now.
+     */
+    private static DoubleDatedTable read(File source, File snapshot) {
+        if (!snapshot.isFile()) return null;
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+            if (!readKey(in, source)) return null;
+            DoubleDatedTable ret = DoubleDatedTable.readSnapshot(in);
+            return in.hasRemaining() ? null : ret;
+        } catch (IOException | DatedTableException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean readKey(ByteBuffer in, File source) throws IOException {
+        return DoubleDatedTable.readString(in).equals(source.getCanonicalPath())
+                && in.getLong() == source.length()
+                && in.getLong() == source.lastModified();
+    }
+
+    /**
+     * Writes the snapshot of a table loaded from a source, replacing the previous one in a single move.
+     */
+    private static void write(File source, long length, long lastModified, File snapshot, DoubleDatedTable table)
+            throws IOException {
+        Path temp = new File(snapshot.getPath() + ".tmp").toPath();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            DoubleDatedTable.writeString(out, source.getCanonicalPath());
+            out.writeLong(length);
+            out.writeLong(lastModified);
+            table.writeSnapshot(out);
+        }
+        Files.move(temp, snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
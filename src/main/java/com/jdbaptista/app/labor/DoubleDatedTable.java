@@ -0,0 +1,310 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.labor.error.DatedTableException;
+import org.apache.poi.ss.usermodel.*;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * A table of dated ranges of double values under String labels, used for the salary and worker compensation tables.
+ * A column holds one value per range of dates, each range running from its start date until the start of the next.
+ * Columns are referred to by a dense column id resolved once per label with
+ * {@link DoubleDatedTable#getColumnId(String)}, and each column is stored as a sorted array of start epoch days with
+ * a parallel array of values, so that {@link DoubleDatedTable#getValue(int, int)} is a binary search that allocates
+ * nothing.
+ */
+public class DoubleDatedTable {
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Column id of each label. Ids are dense and assigned in order of {@link DoubleDatedTable#addColumn}.
+     */
+    private final HashMap<String, Integer> labelToColumnId = new HashMap<>();
+
+    /**
+     * Serves as a quality of life structure to allow data lookup by spreadsheet column number.
+     */
+    private final HashMap<Integer, Integer> colNumToColumnId = new HashMap<>();
+
+    private final ArrayList<String> labels = new ArrayList<>();
+
+    /**
+     * Start dates of each column's ranges as epoch days, ascending. Only the first {@link DoubleDatedTable#counts}
+     * entries of a column are used.
+     */
+    private int[][] startEpochDays = new int[INITIAL_CAPACITY][];
+    private double[][] values = new double[INITIAL_CAPACITY][];
+    private int[] counts = new int[INITIAL_CAPACITY];
+
+    public void addColumn(String label, int columnNum) throws DatedTableException {
+        if (colNumToColumnId.containsKey(columnNum)) {
+            throw new DatedTableException("An attempt to add a duplicate column number has occurred.");
+        }
+        Integer columnId = labelToColumnId.get(label);
+        if (columnId == null) {
+            columnId = labels.size();
+            if (columnId == counts.length) {
+                int capacity = counts.length * 2;
+                startEpochDays = Arrays.copyOf(startEpochDays, capacity);
+                values = Arrays.copyOf(values, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            startEpochDays[columnId] = new int[INITIAL_CAPACITY];
+            values[columnId] = new double[INITIAL_CAPACITY];
+            labels.add(label);
+            labelToColumnId.put(label, columnId);
+        }
+        colNumToColumnId.put(columnNum, columnId);
+    }
+
+    /**
+     * Appends a new range that will continue into the present, simultaneously adding an end date to the range
+     * currently referring to the present. Implicit creation of columns is not supported and must be done first via
+     * {@link DoubleDatedTable#addColumn(String, int)}.
+     * @param columnNum The spreadsheet column number of the column this range will be added to.
+     * @param newValue The new value this column will have between the startDate and present.
+     * @param startDate The inclusive start of this range, and exclusive end of the previous range.
+     * @throws DatedTableException
+     */
+    public void addRangeByColNum(int columnNum, double newValue, LocalDate startDate) throws DatedTableException {
+        Integer columnId = colNumToColumnId.get(columnNum);
+        if (columnId == null) {
+            throw new DatedTableException("Column " + columnNum + " does not contain a label.");
+        }
+        int count = counts[columnId];
+        int startEpochDay = (int) startDate.toEpochDay();
+        if (count > 0 && startEpochDay <= startEpochDays[columnId][count - 1]) {
+            throw new DatedTableException("Dates are misordered.");
+        }
+        if (count == startEpochDays[columnId].length) {
+            startEpochDays[columnId] = Arrays.copyOf(startEpochDays[columnId], count * 2);
+            values[columnId] = Arrays.copyOf(values[columnId], count * 2);
+        }
+        startEpochDays[columnId][count] = startEpochDay;
+        values[columnId][count] = newValue;
+        counts[columnId] = count + 1;
+    }
+
+    /**
+     * @param label The target column label.
+     * @return The id of the column for use with {@link DoubleDatedTable#getValue(int, int)}, or -1 if there is no
+     * column with that label.
+     */
+    public int getColumnId(String label) {
+        Integer columnId = labelToColumnId.get(label);
+        return (columnId == null) ? -1 : columnId;
+    }
+
+    public String getLabel(int columnId) {
+        return labels.get(columnId);
+    }
+
+    public int getColumnCount() {
+        return labels.size();
+    }
+
+    /**
+     * @param columnId The target column id, see {@link DoubleDatedTable#getColumnId(String)}.
+     * @param epochDay The target date as an epoch day.
+     * @return The value of the column at the date specified.
+     * @throws DatedTableException The column does not exist, or the date is before its first range.
+     */
+    public double getValue(int columnId, int epochDay) throws DatedTableException {
+        if (columnId < 0 || columnId >= labels.size()) {
+            throw new DatedTableException("Column " + columnId + " does not exist.");
+        }
+        // index of the last range starting on or before the date.
+        int ndx = Arrays.binarySearch(startEpochDays[columnId], 0, counts[columnId], epochDay);
+        if (ndx < 0) {
+            ndx = -ndx - 2;
+        }
+        if (ndx < 0) {
+            throw new DatedTableException("Date " + LocalDate.ofEpochDay(epochDay) + " is undefined.");
+        }
+        return values[columnId][ndx];
+    }
+
+    /**
+     * Resolves many lookups in one pass. Lookups are visited in date order and each column keeps a cursor that only
+     * moves forward, like a merge join of the lookups against every column, so resolving n lookups costs
+     * O(n + number of ranges) instead of a binary search per lookup.
+     * @param order Indices into the other arrays, in ascending order of their epoch day.
+     * @param count Number of lookups, the used length of order.
+     * @param columnIds Target column id of each lookup.
+     * @param epochDays Target date of each lookup as an epoch day.
+     * @param out Receives the value of each lookup at the same index, or {@link Double#NaN} where the column does
+     *            not exist or the date is before its first range.
+     * @throws IllegalArgumentException The order is not sorted by date.
+     */
+    public void getValues(int[] order, int count, int[] columnIds, int[] epochDays, double[] out) {
+        int[] cursors = new int[labels.size()];
+        int prevEpochDay = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int ndx = order[i];
+            int epochDay = epochDays[ndx];
+            if (epochDay < prevEpochDay) {
+                throw new IllegalArgumentException("Lookups are not sorted by date.");
+            }
+            prevEpochDay = epochDay;
+            int columnId = columnIds[ndx];
+            if (columnId < 0 || columnId >= cursors.length) {
+                out[ndx] = Double.NaN;
+                continue;
+            }
+            int[] starts = startEpochDays[columnId];
+            int last = counts[columnId] - 1;
+            int cursor = cursors[columnId];
+            while (cursor < last && starts[cursor + 1] <= epochDay) {
+                cursor++;
+            }
+            cursors[columnId] = cursor;
+            out[ndx] = (last >= 0 && starts[cursor] <= epochDay) ? values[columnId][cursor] : Double.NaN;
+        }
+    }
+
+    /**
+     * @param label The target column label.
+     * @param date The target date.
+     * @return The value of the column at the date specified.
+     * @throws DatedTableException The column does not exist, or the date is before its first range.
+     */
+    public double getValue(String label, LocalDate date) throws DatedTableException {
+        int columnId = getColumnId(label);
+        if (columnId == -1) {
+            throw new DatedTableException("Column of " + label + " does not exist.");
+        }
+        return getValue(columnId, (int) date.toEpochDay());
+    }
+
+    /**
+     * Loads a table whose first row holds the column labels after an empty corner cell, and each following row
+     * holds a start date followed by the value of each column from that date on.
+     * @param file The .xlsx file to load.
+     * @return The loaded table.
+     * @throws IOException The file could not be read.
+     * @throws DatedTableException The file is not laid out as described.
+     */
+    public static DoubleDatedTable loadExcelData(File file) throws IOException, DatedTableException {
+        DoubleDatedTable table = new DoubleDatedTable();
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook wb = WorkbookFactory.create(file, null, true)) {
+            Sheet sheet = wb.getSheetAt(0);
+            Iterator<Row> rowIterator = sheet.iterator();
+            Row row = rowIterator.next();
+            Iterator<Cell> cellIterator = row.cellIterator();
+            cellIterator.next(); // empty top left corner cell
+            Cell currCell;
+            // first row of column labels, numeric labels such as work codes are read as displayed
+            while (cellIterator.hasNext()) {
+                currCell = cellIterator.next();
+                table.addColumn(formatter.formatCellValue(currCell).strip(), currCell.getColumnIndex());
+            }
+            // each dated row of values
+            while (rowIterator.hasNext()) {
+                row = rowIterator.next();
+                cellIterator = row.cellIterator();
+                // date cell
+                currCell = cellIterator.next();
+                LocalDate startDate = currCell.getLocalDateTimeCellValue().toLocalDate();
+                // value cells
+                while (cellIterator.hasNext()) {
+                    currCell = cellIterator.next();
+                    table.addRangeByColNum(currCell.getColumnIndex(), currCell.getNumericCellValue(), startDate);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Writes the table in the layout read back by {@link DoubleDatedTable#readSnapshot(ByteBuffer)}: the labels, the
+     * spreadsheet column number of each column, then the ranges of each column.
+     */
+    void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(labels.size());
+        for (String label : labels) {
+            writeString(out, label);
+        }
+        out.writeInt(colNumToColumnId.size());
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<>(colNumToColumnId).entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        for (int columnId = 0; columnId < labels.size(); columnId++) {
+            out.writeInt(counts[columnId]);
+            for (int i = 0; i < counts[columnId]; i++) {
+                out.writeInt(startEpochDays[columnId][i]);
+                out.writeDouble(values[columnId][i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a table written by {@link DoubleDatedTable#writeSnapshot(DataOutputStream)}.
+     * @param in Positioned at the start of the table.
+     * @throws DatedTableException The snapshot does not describe a valid table.
+     * @throws java.nio.BufferUnderflowException The snapshot is cut short.
+     */
+    static DoubleDatedTable readSnapshot(ByteBuffer in) throws DatedTableException {
+        DoubleDatedTable table = new DoubleDatedTable();
+        int columnCount = in.getInt();
+        table.startEpochDays = new int[Math.max(INITIAL_CAPACITY, columnCount)][];
+        table.values = new double[Math.max(INITIAL_CAPACITY, columnCount)][];
+        table.counts = new int[Math.max(INITIAL_CAPACITY, columnCount)];
+        for (int columnId = 0; columnId < columnCount; columnId++) {
+            String label = readString(in);
+            if (table.labelToColumnId.put(label, columnId) != null) {
+                throw new DatedTableException("Snapshot holds the column " + label + " twice.");
+            }
+            table.labels.add(label);
+        }
+        int colNumCount = in.getInt();
+        for (int i = 0; i < colNumCount; i++) {
+            int colNum = in.getInt();
+            int columnId = in.getInt();
+            if (columnId < 0 || columnId >= columnCount) {
+                throw new DatedTableException("Snapshot refers to missing column " + columnId + ".");
+            }
+            table.colNumToColumnId.put(colNum, columnId);
+        }
+        for (int columnId = 0; columnId < columnCount; columnId++) {
+            int count = in.getInt();
+            int[] starts = new int[Math.max(INITIAL_CAPACITY, count)];
+            double[] columnValues = new double[starts.length];
+            for (int i = 0; i < count; i++) {
+                starts[i] = in.getInt();
+                columnValues[i] = in.getDouble();
+                if (i > 0 && starts[i] <= starts[i - 1]) {
+                    throw new DatedTableException("Dates are misordered.");
+                }
+            }
+            table.startEpochDays[columnId] = starts;
+            table.values[columnId] = columnValues;
+            table.counts[columnId] = count;
+        }
+        return table;
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,245 @@
+package com.jdbaptista.app.labor;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Remembers how far the shift input was read by a previous run, so that only rows added since then have to be input
+ * again. A checkpoint holds the last row read, a rolling hash of every row up to it, and the shifts those rows added
+ * to the {@link ShiftTable}. While the rows it covers are read again they are only hashed; once they are all read and
+ * the hash still matches, the saved shifts are restored with {@link IngestCheckpoint#restore} and reading carries on
+ * with the new rows. If any covered row changed, the checkpoint is stale and the input has to be read from the start.
+ * The checkpoint is kept in {@link IngestCheckpoint#FILE_NAME} inside the output folder.
+ */
+public class IngestCheckpoint {
+    public static final String FILE_NAME = ".labor-checkpoint";
+    private static final int MAGIC = 0x52524243;
+    private static final int VERSION = 1;
+    // 64 bit FNV-1a, see http://www.isthe.com/chongo/tech/comp/fnv/
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * The last row covered by the checkpoint, -1 for a new checkpoint.
+     */
+    final private int lastRow;
+    final private long savedHash;
+    final private ShiftTable saved;
+    /**
+     * The month of every saved row, see {@link ShiftIndex#add(int, String)}.
+     */
+    final private StringDictionary months;
+    private int[] savedMonth;
+    private int savedSize;
+
+    private long hash;
+    private int hashedRow;
+    private boolean restored;
+    private boolean stale;
+
+    /**
+     * Creates an empty checkpoint, covering no rows.
+     */
+    public IngestCheckpoint() {
+        this(-1, FNV_OFFSET, new ShiftTable());
+    }
+
+    private IngestCheckpoint(int lastRow, long savedHash, ShiftTable saved) {
+        this.lastRow = lastRow;
+        this.savedHash = savedHash;
+        this.saved = saved;
+        months = new StringDictionary();
+        savedMonth = new int[16];
+        hash = FNV_OFFSET;
+        hashedRow = -1;
+    }
+
+    /**
+     * Reads the checkpoint of an output folder. A missing or unreadable checkpoint is read as empty, so that the input
+     * is read from the start.
+     * @param outFolder The folder reports are written to.
+     */
+    public static IngestCheckpoint load(String outFolder) {
+        File file = new File(outFolder, FILE_NAME);
+        if (!file.isFile()) return new IngestCheckpoint();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return new IngestCheckpoint();
+            }
+            IngestCheckpoint ret = new IngestCheckpoint(in.readInt(), in.readLong(), new ShiftTable());
+            String[] workers = readStrings(in);
+            String[] addresses = readStrings(in);
+            String[] tasks = readStrings(in);
+            String[] types = readStrings(in);
+            String[] months = readStrings(in);
+            int size = in.readInt();
+            for (int row = 0; row < size; row++) {
+                String worker = workers[in.readInt()];
+                String address = addresses[in.readInt()];
+                LocalDate date = LocalDate.ofEpochDay(in.readInt());
+                String task = tasks[in.readInt()];
+                double time = in.readDouble();
+                String type = types[in.readInt()];
+                double multiplier = in.readDouble();
+                ret.saved.addRow(worker, address, date, task, time, type, multiplier);
+                ret.addMonth(months[in.readInt()]);
+            }
+            return ret;
+        } catch (IOException | RuntimeException e) {
+            return new IngestCheckpoint();
+        }
+    }
+
+    /**
+     * Hashes the next row read from the input, restoring the checkpoint first if this is the first row past it.
+     * Rows must be handed in in increasing order, including rows that could not be read.
+     * @param rowNum The index of the row in the input.
+     * @param fields The cells of the row as input, or null if the row could not be read.
+     * @return True if the row is past the checkpoint and has to be input, false if it is covered by the checkpoint
+     * or the checkpoint turned out stale.
+     */
+    public boolean hashRow(int rowNum, ShiftTable table, ShiftIndex index, Object... fields) {
+        if (stale) return false;
+        if (!restored && rowNum > lastRow) {
+            restore(table, index);
+            if (stale) return false;
+        }
+        hash = mix(hash, rowNum);
+        if (fields == null) {
+            hash = mix(hash, -1);
+        } else {
+            for (Object field : fields) {
+                if (field instanceof Double) {
+                    hash = mix(hash, Double.doubleToLongBits((Double) field));
+                } else {
+                    String value = String.valueOf(field);
+                    hash = mix(hash, value.length());
+                    for (int i = 0; i < value.length(); i++) {
+                        hash = mix(hash, value.charAt(i));
+                    }
+                }
+            }
+        }
+        hashedRow = rowNum;
+        return restored;
+    }
+
+    /**
+     * Ends reading the input, restoring the checkpoint if no row past it was found.
+     */
+    public void finish(ShiftTable table, ShiftIndex index) {
+        if (!restored && !stale) {
+            restore(table, index);
+        }
+    }
+
+    /**
+     * Adds the saved shifts to a table and index once every row covered by the checkpoint was read, or marks the
+     * checkpoint stale if those rows changed.
+     */
+    private void restore(ShiftTable table, ShiftIndex index) {
+        if (hash != savedHash || hashedRow != lastRow) {
+            stale = true;
+            return;
+        }
+        // months are recorded again for the rows that make it into the table, never ahead of the one being read.
+        int count = savedSize;
+        savedSize = 0;
+        for (int i = 0; i < count; i++) {
+            int row = table.addRow(saved.getWorker(i), saved.getAddress(i), saved.getDate(i), saved.getTask(i),
+                    saved.getTime(i), saved.getType(i), saved.getMultiplier(i));
+            String month = months.get(savedMonth[i]);
+            if (index.add(row, month)) {
+                addMonth(month);
+            } else {
+                table.removeLastRow();
+            }
+        }
+        restored = true;
+    }
+
+    /**
+     * Records the month of a row added to the table after the checkpoint was restored, in row order.
+     */
+    public void addMonth(String month) {
+        if (savedSize == savedMonth.length) {
+            savedMonth = Arrays.copyOf(savedMonth, savedSize * 2);
+        }
+        savedMonth[savedSize++] = months.intern(month);
+    }
+
+    /**
+     * @return True once every row covered by the checkpoint was read unchanged and its shifts were restored.
+     */
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * @return True if a row covered by the checkpoint changed, and the input has to be read again from the start with
+     * a new checkpoint.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Writes a checkpoint covering every row hashed so far and every shift of the table to the output folder,
+     * replacing the previous one in a single move.
+     * @throws IOException
+     */
+    public void save(String outFolder, ShiftTable table) throws IOException {
+        Path target = new File(outFolder, FILE_NAME).toPath();
+        Path temp = new File(outFolder, FILE_NAME + ".tmp").toPath();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(hashedRow);
+            out.writeLong(hash);
+            writeStrings(out, table.workers);
+            writeStrings(out, table.addresses);
+            writeStrings(out, table.tasks);
+            writeStrings(out, table.types);
+            writeStrings(out, months);
+            out.writeInt(table.size);
+            for (int row = 0; row < table.size; row++) {
+                out.writeInt(table.worker[row]);
+                out.writeInt(table.address[row]);
+                out.writeInt(table.epochDay[row]);
+                out.writeInt(table.task[row]);
+                out.writeDouble(table.time[row]);
+                out.writeInt(table.type[row]);
+                out.writeDouble(table.multiplier[row]);
+                out.writeInt(savedMonth[row]);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+
+    private static void writeStrings(DataOutputStream out, StringDictionary dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            out.writeUTF(dictionary.get(id));
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] ret = new String[in.readInt()];
+        for (int id = 0; id < ret.length; id++) {
+            ret[id] = in.readUTF();
+        }
+        return ret;
+    }
+}
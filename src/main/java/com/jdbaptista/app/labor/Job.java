@@ -2,7 +2,6 @@ package com.jdbaptista.app.labor;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Objects;
 
 /**
  * Represents one client or address and all the data associated to it, mainly every {@link Week} for this job.
@@ -10,36 +9,51 @@ import java.util.Objects;
 public class Job {
     final private String address;
     final private ArrayList<Week> weeks;
-    public HashMap<String, double[]> taskTotals;
+    final private HashMap<Integer, Week> weeksByKey;
+    public HashMap<String, long[]> taskTotals;
 
     public Job(String address) {
         this.address = address;
         weeks = new ArrayList<>();
+        weeksByKey = new HashMap<>();
         taskTotals = new HashMap<>();
     }
 
     public void addWeek(Week week) {
         weeks.add(week);
+        weeksByKey.put(week.getKey(), week);
     }
 
     public ArrayList<Week> getWeeks() {
         return weeks;
     }
 
-    public Week getWeekRef(Week query) {
-        if (!weeks.contains(query)) return null;
+    /**
+     * @param key The key of the week, see {@link Week#key(int, int)}.
+     * @return The week of this job with that key, or null if there is none.
+     */
+    public Week getWeek(int key) {
+        return weeksByKey.get(key);
+    }
+
+    /**
+     * @return The number of shifts in every week of this job, a measure of how large its report is.
+     */
+    public int getRowCount() {
+        int ret = 0;
         for (Week week : weeks) {
-            if (week.equals(query)) {
-                return week;
-            }
+            ret += week.getRowCount();
         }
-        return null;
+        return ret;
     }
 
-    public double[] calculateJobTotal() {
-        double[] jobTotals = new double[4];
+    /**
+     * @return The totals of every week together, in the layout and units of {@link Week#dailyTotals}.
+     */
+    public long[] calculateJobTotal() {
+        long[] jobTotals = new long[4];
         for (Week week : weeks) {
-            double[] weekTotals = week.dailyTotals.get(0); // 0 is reserved for total
+            long[] weekTotals = week.dailyTotals.get(0); // 0 is reserved for total
             for (int i = 0; i < weekTotals.length; i++) {
                 jobTotals[i] += weekTotals[i];
             }
@@ -66,6 +80,6 @@ public class Job {
 
     @Override
     public int hashCode() {
-        return Objects.hash(address);
+        return address.hashCode();
     }
 }
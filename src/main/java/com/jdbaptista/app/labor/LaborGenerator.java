@@ -1,6 +1,10 @@
 package com.jdbaptista.app.labor;
 
+import com.jdbaptista.app.labor.error.DatedTableException;
+import com.jdbaptista.app.report.Progress;
+import com.jdbaptista.app.report.RunMetrics;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
@@ -8,9 +12,20 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoField;
-import java.time.temporal.IsoFields;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Contains functionality to take input data stored in excel files and create or override output excel files filled
@@ -18,6 +33,25 @@ import java.util.*;
  * validation and initialization of input parameters.
  */
 public class LaborGenerator {
+    // month names of the input are English whatever the locale of the machine.
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH);
+    /**
+     * Rows of each sheet kept in memory when {@link LaborGenerator#streamingOutput} is set.
+     */
+    private static final int STREAMING_WINDOW = 100;
+    /**
+     * Jobs waiting between two stages of {@link LaborGenerator#runPipelined()}.
+     */
+    private static final int PIPELINE_CAPACITY = 4;
+    /**
+     * Ends the jobs passed between two stages of {@link LaborGenerator#runPipelined()}, compared by identity.
+     */
+    private static final Job END_OF_JOBS = new Job("");
+    /**
+     * Run report kept in {@link LaborGenerator#outFolder} with {@link LaborGenerator#runReport}.
+     */
+    public static final String RUN_REPORT = "labor-runs.jsonl";
+
     // required attributes
     final private File inFile;
     final private File workCompFile;
@@ -25,8 +59,60 @@ public class LaborGenerator {
     final private String outFolder;
     // optional attributes
     final private OutputStreamWriter outputLog;
+    final private boolean streamingInput;
+    final private boolean streamingOutput;
+    final private int parallelism;
+    final private boolean skipUnchanged;
+    final private boolean incrementalInput;
+    final private boolean rateSnapshots;
+    final private boolean pipelined;
+    final private boolean runReport;
+    final private Progress readProgress;
+    final private Progress writeProgress;
     // static attributes
-    final private HashMap<Job, XSSFWorkbook> jobs;
+    /**
+     * Shifts read from the input. With {@link LaborGenerator#pipelined} they are the shifts of the job being read,
+     * replaced by a new table for each job.
+     */
+    private ShiftTable table;
+    private ShiftIndex index;
+    /**
+     * The fingerprint of every job once calculated, only kept with {@link LaborGenerator#skipUnchanged}.
+     */
+    final private ConcurrentHashMap<Job, String> fingerprints;
+    /**
+     * Passes finished jobs on while the input is read, only kept with {@link LaborGenerator#pipelined}.
+     */
+    private Pipeline pipeline;
+    /**
+     * Calculates the weeks of every job for the whole run, only kept when {@link LaborGenerator#parallelism} is
+     * above 1.
+     */
+    private ForkJoinPool calculationPool;
+    /**
+     * The checkpoint of the input being read, only kept with {@link LaborGenerator#incrementalInput}.
+     */
+    private IngestCheckpoint checkpoint;
+    /**
+     * Rows read again while {@link LaborGenerator#checkpoint} is not yet restored, and the numbers of those that
+     * could not be read, see {@link LaborGenerator#countRow}.
+     */
+    private long heldRows;
+    final private ArrayList<Integer> heldSkippedRows;
+    /**
+     * Set when reading the input stopped at an invalid row, in which case no checkpoint is saved.
+     */
+    private boolean inputStopped;
+    /**
+     * Set by {@link LaborGenerator#cancel()} from another thread.
+     */
+    private volatile boolean cancelled;
+    /**
+     * Times the stages of the run and counts what it did. A generator is only run once, as its shifts are kept.
+     */
+    final private RunMetrics metrics;
+    final private LongAdder rowsRead;
+    final private LongAdder rowsSkipped;
 
     public LaborGenerator(LaborGeneratorBuilder builder) {
         // required parameters
@@ -37,239 +123,1006 @@ public class LaborGenerator {
 
         // optional parameters
         this.outputLog = new OutputStreamWriter(builder.getOutputLog());
+        this.streamingInput = builder.isStreamingInput();
+        this.streamingOutput = builder.isStreamingOutput();
+        this.parallelism = builder.getParallelism();
+        this.skipUnchanged = builder.isSkipUnchanged();
+        this.incrementalInput = builder.isIncrementalInput();
+        this.rateSnapshots = builder.isRateSnapshots();
+        this.pipelined = builder.isPipelined();
+        this.runReport = builder.isRunReport();
+        this.readProgress = new Progress(builder.getProgressListener(), "Reading shifts");
+        this.writeProgress = new Progress(builder.getProgressListener(), "Writing reports");
 
         // static attributes
-        jobs = new HashMap<>();
+        table = new ShiftTable();
+        index = new ShiftIndex(table);
+        fingerprints = new ConcurrentHashMap<>();
+        heldSkippedRows = new ArrayList<>();
+        metrics = new RunMetrics("labor");
+        rowsRead = metrics.counter("rowsRead");
+        rowsSkipped = metrics.counter("rowsSkipped");
     }
 
     /**
      * Entry point for program execution and report generation.
+     * @return True if every report was generated, false if any report or input failed.
      * @throws IOException
      */
-    public void run() throws IOException {
+    public boolean run() throws IOException {
+        boolean successful = false;
+        metrics.start();
+        if (parallelism > 1) {
+            calculationPool = new ForkJoinPool(parallelism);
+        }
         try {
-            long startTime = System.nanoTime();
-            System.out.println("Loading worker comp data...");
-            DatedTableData<String, Double> wcData = DatedTableData.loadExcelData(workCompFile);
-            long endTime = System.nanoTime();
-            long duration = (endTime - startTime) / 1000000;
-            System.out.println("Process finished in " + duration + "ms.");
-
-            startTime = System.nanoTime();
-            System.out.println("Loading salary data...");
-            DatedTableData<String, Double> salaryData = DatedTableData.loadExcelData(salaryFile);
-            endTime = System.nanoTime();
-            duration = (endTime - startTime) / 1000000;
-            System.out.println("Process finished in " + duration + "ms.");
-
-            startTime = System.nanoTime();
-            System.out.println("Loading shift data...");
-            parseData();
-            endTime = System.nanoTime();
-            duration = (endTime - startTime) / 1000000;
-            System.out.println("Process finished in " + duration + "ms.");
-
-            startTime = System.nanoTime();
-            System.out.println("Calculating report data...");
-            calculate(wcData, salaryData);
-            endTime = System.nanoTime();
-            duration = (endTime - startTime) / 1000000;
-            System.out.println("Process finished in " + duration + "ms.");
-
-            startTime = System.nanoTime();
-            System.out.println("Generating reports...");
-            generateFiles();
-            endTime = System.nanoTime();
-            duration = (endTime - startTime) / 1000000;
-            System.out.println("Process finished in " + duration + "ms.");
-
+            if (pipelined) {
+                successful = runPipelined();
+            } else {
+                successful = runStaged();
+            }
+        } catch (CancellationException e) {
+            outputLog.write("Report generation was cancelled.\n");
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            if (calculationPool != null) {
+                calculationPool.shutdownNow();
+                calculationPool = null;
+            }
+            metrics.stop();
+        }
+        if (runReport) {
+            try {
+                metrics.save(new File(outFolder, RUN_REPORT), successful);
+            } catch (IOException e) {
+                // the reports themselves are unaffected.
+                e.printStackTrace();
+            }
         }
         outputLog.flush();
+        return successful;
     }
 
     /**
-     * Creates final labor reports in {@link LaborGenerator#outFolder}.
-     * @throws IOException
+     * Loads every input, then calculates every job, then writes every report.
+     * @return True if every report was generated.
+     * @throws Exception A stage failed.
      */
-    private void generateFiles() throws IOException {
+    private boolean runStaged() throws Exception {
+        // the three inputs are independent files, so they are loaded at once.
+        RunMetrics.Timer timer = metrics.time("load");
+        System.out.println("Loading worker comp, salary, and shift data...");
+        ExecutorService loader = Executors.newFixedThreadPool(3);
+        DoubleDatedTable wcData;
+        DoubleDatedTable salaryData;
         try {
-            for (Job job : jobs.keySet()) {
-                XSSFWorkbook wb = new XSSFWorkbook();
-                com.jdbaptista.app.labor.Formatter formatter = new Formatter(wb, outFolder);
-                formatter.writeJob(job);
+            CompletableFuture<DoubleDatedTable> wcFuture = loadAsync(() -> loadRates(workCompFile), "workComp", loader);
+            CompletableFuture<DoubleDatedTable> salaryFuture = loadAsync(() -> loadRates(salaryFile), "salary", loader);
+            CompletableFuture<Object> shiftFuture = loadAsync(() -> {
+                parseData();
+                return null;
+            }, "shifts", loader);
+            awaitAll(wcFuture, salaryFuture, shiftFuture);
+            wcData = wcFuture.join();
+            salaryData = salaryFuture.join();
+        } finally {
+            loader.shutdownNow();
+        }
+        System.out.println("Worker comp data finished in " + metrics.getMillis("workComp") + "ms.");
+        System.out.println("Salary data finished in " + metrics.getMillis("salary") + "ms.");
+        System.out.println("Shift data finished in " + metrics.getMillis("shifts") + "ms.");
+        System.out.println("Process finished in " + timer.stop() + "ms.");
+
+        timer = metrics.time("calculate");
+        System.out.println("Calculating report data...");
+        calculate(wcData, salaryData);
+        System.out.println("Process finished in " + timer.stop() + "ms.");
+
+        timer = metrics.time("write");
+        System.out.println("Generating reports...");
+        boolean successful = generateFiles();
+        System.out.println("Process finished in " + timer.stop() + "ms.");
+        return successful;
+    }
+
+    /**
+     * Stops a run started on another thread at the next row or report, leaving the reports written so far. The
+     * manifest and checkpoint of the output folder are left as they were before the run, so the next run picks up
+     * from there. Does nothing once the run is past writing reports.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @throws CancellationException {@link LaborGenerator#cancel()} was called.
+     */
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Report generation was cancelled.");
+        }
+    }
+
+    /**
+     * Something loaded from one of the input files.
+     */
+    private interface Loader<T> {
+        T load() throws Exception;
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#run()}. Starts loading an input on the executor, timing it as a stage
+     * of {@link LaborGenerator#metrics}.
+     * @return The result of the loader, or its failure as the cause of a {@link CompletionException}.
+     */
+    private <T> CompletableFuture<T> loadAsync(Loader<T> loader, String stage, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            RunMetrics.Timer timer = metrics.time(stage);
+            try {
+                return loader.load();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                timer.stop();
             }
-        } catch(Exception e) {
-            e.printStackTrace();
-            outputLog.write("Something went wrong generating the reports.\n");
+        }, executor);
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#run()}. Waits for every load to finish, whether or not the others
+     * failed, then throws the failure of the first load to fail in argument order with the failures of the rest
+     * suppressed in it.
+     * @throws Exception The failure of a load.
+     */
+    private static void awaitAll(CompletableFuture<?>... loads) throws Exception {
+        Exception failure = null;
+        for (CompletableFuture<?> load : loads) {
+            try {
+                load.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (failure == null) {
+                    failure = (Exception) cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs every stage at once, job by job, instead of one stage after the other. Pays off when the input is grouped
+     * by job: once a row of another job is read, the job before it is complete and is calculated and written while the
+     * input is still being read, see {@link Pipeline}. The stages are linked by queues of
+     * {@link LaborGenerator#PIPELINE_CAPACITY} jobs, so that a fast stage waits for a slow one instead of holding
+     * every job in memory. When {@link LaborGenerator#parallelism} is above 1, that many reports are written at once,
+     * see {@link LaborGenerator#writePipelined}; otherwise they are written one at a time on the calling thread.
+     * @return True if every report was generated.
+     * @throws Exception A stage failed.
+     */
+    private boolean runPipelined() throws Exception {
+        RunMetrics.Timer timer = metrics.time("pipeline");
+        RunMetrics.Timer firstReport = metrics.time("firstReport");
+        System.out.println("Loading, calculating, and generating reports job by job...");
+        ExecutorService stages = Executors.newFixedThreadPool(4, runnable -> {
+            // a stage left waiting on a queue never keeps the program from exiting.
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorService writers = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        pipeline = new Pipeline();
+        boolean successful;
+        try {
+            CompletableFuture<DoubleDatedTable> wcFuture =
+                    loadAsync(() -> loadRates(workCompFile), "workComp", stages);
+            CompletableFuture<DoubleDatedTable> salaryFuture =
+                    loadAsync(() -> loadRates(salaryFile), "salary", stages);
+            CompletableFuture<Object> shiftFuture = loadAsync(() -> {
+                try {
+                    readInput();
+                    pipeline.finish();
+                } finally {
+                    pipeline.parsed.put(END_OF_JOBS);
+                }
+                return null;
+            }, "shifts", stages);
+            CompletableFuture<Object> calculationFuture = loadAsync(() -> {
+                calculateJobs(wcFuture, salaryFuture);
+                return null;
+            }, "calculate", stages);
+
+            // write each job as soon as it is calculated.
+            ReportManifest manifest = skipUnchanged ? ReportManifest.load(outFolder) : null;
+            LinkedHashSet<Job> written = new LinkedHashSet<>();
+            AtomicInteger reportsDone = new AtomicInteger();
+            // the last write of each job, so that a job read again is not written twice at once.
+            HashMap<Job, CompletableFuture<Void>> lastWrites = new HashMap<>();
+            ArrayDeque<CompletableFuture<Void>> writing = new ArrayDeque<>();
+            writeProgress.start(-1);
+            Job job;
+            while ((job = pipeline.calculated.take()) != END_OF_JOBS) {
+                if (cancelled) {
+                    // only keeps the other stages from waiting on a full queue until they see the cancel.
+                    continue;
+                }
+                // a job read again is written again, whatever the manifest says of its earlier report.
+                if (manifest != null && !written.contains(job) && manifest.isUnchanged(job, fingerprints.get(job))) {
+                    continue;
+                }
+                written.add(job);
+                Job next = job;
+                if (writers == null) {
+                    writePipelined(next, reportsDone, firstReport);
+                    continue;
+                }
+                CompletableFuture<Void> lastWrite = lastWrites.get(next);
+                if (lastWrite != null) {
+                    awaitAll(lastWrite);
+                }
+                // no more than one report waiting per writer, so that calculated jobs are not held in memory.
+                while (writing.size() >= 2 * parallelism) {
+                    awaitAll(writing.remove());
+                }
+                CompletableFuture<Void> write =
+                        CompletableFuture.runAsync(() -> writePipelined(next, reportsDone, firstReport), writers);
+                lastWrites.put(next, write);
+                writing.add(write);
+            }
+            awaitAll(writing.toArray(CompletableFuture[]::new));
+            awaitAll(wcFuture, salaryFuture, shiftFuture, calculationFuture);
+            checkCancelled();
+            writeProgress.finish();
+            System.out.println("Worker comp data finished in " + metrics.getMillis("workComp") + "ms.");
+            System.out.println("Salary data finished in " + metrics.getMillis("salary") + "ms.");
+            System.out.println("Shift data finished in " + metrics.getMillis("shifts") + "ms.");
+            System.out.println("Calculation finished in " + metrics.getMillis("calculate") + "ms.");
+            for (Job failed : pipeline.failures.keySet()) {
+                written.add(failed);
+            }
+            successful = reportResults(pipeline.jobs.values(), written, pipeline.failures, manifest);
+        } finally {
+            stages.shutdownNow();
+            if (writers != null) {
+                writers.shutdownNow();
+            }
+        }
+        System.out.println("Process finished in " + timer.stop() + "ms.");
+        return successful;
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#runPipelined()}. Writes the report of one job, on a writer thread when
+     * {@link LaborGenerator#parallelism} is above 1, and records whether it failed. Only the last write of a job
+     * counts, since the writes of one job never overlap.
+     * @param reportsDone Reports written so far, to time the first one.
+     */
+    private void writePipelined(Job job, AtomicInteger reportsDone, RunMetrics.Timer firstReport) {
+        if (cancelled) {
+            return;
+        }
+        try {
+            generateFile(job);
+            pipeline.failures.remove(job);
+        } catch (Exception e) {
+            pipeline.failures.put(job, e);
+        }
+        writeProgress.step();
+        if (reportsDone.incrementAndGet() == 1) {
+            System.out.println("First report written in " + firstReport.stop() + "ms.");
+        }
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#runPipelined()}. Calculates each job once it is read and passes it on to
+     * be written. A job with a missing rate is recorded as a failed report. Keeps taking jobs until the end of the
+     * input even if the rates failed to load, so that reading is never left waiting.
+     * @throws Exception The rates could not be loaded.
+     */
+    private void calculateJobs(CompletableFuture<DoubleDatedTable> wcFuture,
+                               CompletableFuture<DoubleDatedTable> salaryFuture) throws Exception {
+        try {
+            Job job;
+            while ((job = pipeline.parsed.take()) != END_OF_JOBS) {
+                awaitAll(wcFuture, salaryFuture);
+                ArrayList<Job> jobs = new ArrayList<>(List.of(job));
+                try {
+                    calculate(job.getWeeks().get(0).getTable(), jobs, wcFuture.join(), salaryFuture.join());
+                } catch (DatedTableException e) {
+                    pipeline.failures.put(job, e);
+                    continue;
+                }
+                pipeline.calculated.put(job);
+            }
+        } catch (InterruptedException e) {
+            // keeps the end of jobs from waiting on a queue no one takes from anymore.
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (Exception e) {
+            while (pipeline.parsed.take() != END_OF_JOBS) {
+                // drop the rest of the input.
+            }
+            throw e;
+        } finally {
+            pipeline.calculated.put(END_OF_JOBS);
+        }
+    }
+
+    /**
+     * Cuts the input of {@link LaborGenerator#runPipelined()} into jobs as it is read. Each job is read into a
+     * {@link ShiftTable} of its own, which is never written to again once the job is passed on, so that the job can be
+     * calculated and written by other threads while reading carries on. While the input is grouped by job, a job is
+     * passed on as soon as a row of the next job is read. Once a job that was passed on shows up again, the input is
+     * not grouped: that job's shifts so far are copied into a new table to be passed on, and written, again, and from
+     * then on every job is kept open until the end of the input.
+     */
+    private class Pipeline {
+        final LinkedBlockingQueue<Job> parsed = new LinkedBlockingQueue<>(PIPELINE_CAPACITY);
+        final LinkedBlockingQueue<Job> calculated = new LinkedBlockingQueue<>(PIPELINE_CAPACITY);
+        final ConcurrentHashMap<Job, Throwable> failures = new ConcurrentHashMap<>();
+        /**
+         * The last version of every job passed on so far, in input order.
+         */
+        final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+        /**
+         * The table of every job passed on so far, and the month of each row of a job, see
+         * {@link ShiftIndex#add(int, String)}.
+         */
+        final HashMap<String, ShiftTable> passedOn = new HashMap<>();
+        final HashMap<String, ArrayList<String>> months = new HashMap<>();
+        /**
+         * The index of every job still being read, in input order.
+         */
+        final LinkedHashMap<String, ShiftIndex> open = new LinkedHashMap<>();
+        private String address;
+        private boolean grouped = true;
+
+        /**
+         * Switches {@link LaborGenerator#table} to the job of the next row, passing on the job before it while the
+         * input is grouped.
+         */
+        void select(String address) throws IOException {
+            if (address.equals(this.address)) return;
+            if (grouped && this.address != null) {
+                emit(this.address);
+            }
+            this.address = address;
+            ShiftIndex next = open.get(address);
+            if (next == null) {
+                next = new ShiftIndex(new ShiftTable());
+                open.put(address, next);
+                ShiftTable earlier = passedOn.get(address);
+                if (earlier == null) {
+                    months.put(address, new ArrayList<>());
+                } else {
+                    if (grouped) {
+                        outputLog.write(inFile.getName() + " is not grouped by job, reports are written once it is read.\n");
+                        grouped = false;
+                    }
+                    // only the input columns of the earlier table are read, which nothing else writes to.
+                    ArrayList<String> jobMonths = months.get(address);
+                    ShiftTable copy = next.getTable();
+                    for (int row = 0; row < earlier.size(); row++) {
+                        copy.addRow(earlier.getWorker(row), earlier.getAddress(row), earlier.getDate(row),
+                                earlier.getTask(row), earlier.getTime(row), earlier.getType(row),
+                                earlier.getMultiplier(row));
+                        next.add(row, jobMonths.get(row));
+                    }
+                }
+            }
+            index = next;
+            table = next.getTable();
+        }
+
+        void addMonth(String month) {
+            months.get(address).add(month);
+        }
+
+        /**
+         * Passes on every job still open, at the end of the input.
+         */
+        void finish() {
+            for (String address : new ArrayList<>(open.keySet())) {
+                emit(address);
+            }
+            address = null;
+        }
+
+        /**
+         * Passes on an open job, waiting while the calculation is {@link LaborGenerator#PIPELINE_CAPACITY} jobs behind.
+         */
+        private void emit(String address) {
+            ShiftIndex jobIndex = open.remove(address);
+            Job job = jobIndex.getJobs().get(0);
+            jobs.put(address, job);
+            passedOn.put(address, jobIndex.getTable());
+            try {
+                parsed.put(job);
+            } catch (InterruptedException e) {
+                // cancelled, stop reading at this row.
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Reading " + inFile.getName() + " was cancelled.");
+            }
+        }
+    }
+
+    /**
+     * Loads a rate table, through a {@link DatedTableSnapshot} kept in {@link LaborGenerator#outFolder} when
+     * {@link LaborGenerator#rateSnapshots} is set.
+     */
+    private DoubleDatedTable loadRates(File file) throws IOException, DatedTableException {
+        if (rateSnapshots) {
+            return DatedTableSnapshot.load(file, outFolder);
+        }
+        return DoubleDatedTable.loadExcelData(file);
+    }
+
+    /**
+     * Creates final labor reports in {@link LaborGenerator#outFolder}. With {@link LaborGenerator#streamingOutput}
+     * each report is written through an {@link SXSSFWorkbook}, holding at most {@link LaborGenerator#STREAMING_WINDOW}
+     * rows of it in memory. When {@link LaborGenerator#parallelism} is above 1, reports are written concurrently by
+     * that many threads, largest job first so that the longest report does not start last. A job that fails is
+     * logged and does not stop the others. With {@link LaborGenerator#skipUnchanged}, jobs whose fingerprint matches the
+     * {@link ReportManifest} of the output folder are not written again.
+     * @throws IOException
+     * @return True if every report was generated.
+     * @throws InterruptedException Interrupted while waiting for the reports.
+     */
+    private boolean generateFiles() throws IOException, InterruptedException {
+        ArrayList<Job> jobs = index.getJobs();
+        ArrayList<Job> changed = jobs;
+        ReportManifest manifest = null;
+        if (skipUnchanged) {
+            manifest = ReportManifest.load(outFolder);
+            changed = new ArrayList<>();
+            for (Job job : jobs) {
+                if (!manifest.isUnchanged(job, fingerprints.get(job))) {
+                    changed.add(job);
+                }
+            }
+        }
+
+        HashMap<Job, Throwable> failures = new HashMap<>();
+        writeProgress.start(changed.size());
+        if (parallelism > 1) {
+            ArrayList<Job> bySize = new ArrayList<>(changed);
+            bySize.sort(Comparator.comparingInt(Job::getRowCount).reversed());
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                HashMap<Job, Future<?>> reports = new HashMap<>();
+                for (Job job : bySize) {
+                    reports.put(job, executor.submit(() -> {
+                        checkCancelled();
+                        generateFile(job);
+                        writeProgress.step();
+                        return null;
+                    }));
+                }
+                for (Job job : bySize) {
+                    try {
+                        reports.get(job).get();
+                    } catch (ExecutionException e) {
+                        failures.put(job, e.getCause());
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            checkCancelled();
+        } else {
+            for (Job job : changed) {
+                checkCancelled();
+                try {
+                    generateFile(job);
+                } catch (Exception e) {
+                    failures.put(job, e);
+                }
+                writeProgress.step();
+            }
+        }
+        writeProgress.finish();
+
+        return reportResults(jobs, changed, failures, manifest);
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#generateFiles()}. Logs the failed reports in job order whichever thread
+     * hit them, records the written reports in the manifest, and sums up the run.
+     * @param jobs Every job, in order.
+     * @param changed The jobs whose reports were to be written.
+     * @param failures The failure of each report that could not be written.
+     * @param manifest The manifest of the output folder, or null without {@link LaborGenerator#skipUnchanged}.
+     * @return True if no report failed.
+     * @throws IOException
+     */
+    private boolean reportResults(Collection<Job> jobs, Collection<Job> changed, Map<Job, Throwable> failures,
+                               ReportManifest manifest) throws IOException {
+        for (Job job : jobs) {
+            Throwable e = failures.get(job);
+            if (e != null) {
+                e.printStackTrace();
+                outputLog.write("Something went wrong generating the report for " + job.getAddress() + ": " + e + "\n");
+            }
+        }
+        if (manifest != null) {
+            // failed reports are forgotten so that the next run tries them again.
+            for (Job job : changed) {
+                if (failures.containsKey(job)) {
+                    manifest.remove(job);
+                } else {
+                    manifest.put(job, fingerprints.get(job));
+                }
+            }
+            manifest.save();
+            if (changed.size() < jobs.size()) {
+                outputLog.write((jobs.size() - changed.size()) + " unchanged reports were skipped.\n");
+            }
+        }
+        if (failures.isEmpty()) {
+            outputLog.write("Reports generated successfully.\n");
+        } else {
+            outputLog.write(failures.size() + " of " + changed.size() + " reports could not be generated.\n");
             outputLog.write("Check the input files.\n");
         }
-        outputLog.write("Reports generated successfully.\n");
+        return failures.isEmpty();
     }
 
     /**
-     * Loads shift data from {@link LaborGenerator#inFile}.
+     * Helper function of {@link LaborGenerator#generateFiles()}. Writes the report of one job with a workbook and
+     * {@link Formatter} of its own.
      * @throws IOException
      */
-    private void parseData() throws IOException {
-        String nameCell;
-        String addressCell;
-        String dateCell;
-        String taskCell;
-        double timeCell;
-        String classCell;
-        String multiplierCell;
+    private void generateFile(Job job) throws IOException {
+        Workbook wb = streamingOutput ? new SXSSFWorkbook(STREAMING_WINDOW) : new XSSFWorkbook();
+        com.jdbaptista.app.labor.Formatter formatter = new Formatter(wb, outFolder);
+        formatter.writeJob(job);
+        metrics.add("reportsWritten", 1);
+        metrics.add("sheetsWritten", 1 + job.getWeeks().size());
+        metrics.add("cellsWritten", formatter.getCellCount());
+        metrics.add("bytesWritten", new File(outFolder, job.getAddress() + ".xlsx").length());
+    }
 
-        // try to open the input file.
+    /**
+     * Loads shift data from {@link LaborGenerator#inFile}. With {@link LaborGenerator#incrementalInput}, the shifts of
+     * the rows read by the previous run come from its {@link IngestCheckpoint} and only rows added since are input.
+     * If a row read before changed, the input is read again from the start.
+     * @throws IOException
+     */
+    void parseData() throws IOException {
+        if (!incrementalInput) {
+            readInput();
+            return;
+        }
+        checkpoint = IngestCheckpoint.load(outFolder);
+        readInput();
+        checkpoint.finish(table, index);
+        settleHeldRows();
+        if (checkpoint.isStale()) {
+            outputLog.write("Rows of " + inFile.getName() + " changed since the last run. Reading it from the start.\n");
+            checkpoint = new IngestCheckpoint();
+            readInput();
+            checkpoint.finish(table, index);
+        }
+        if (!inputStopped) {
+            checkpoint.save(outFolder, table);
+        }
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#parseData()}. Reads every row of {@link LaborGenerator#inFile}.
+     * @throws IOException
+     */
+    private void readInput() throws IOException {
+        if (streamingInput) {
+            parseDataStreaming();
+            return;
+        }
+
+        // try to open the input file, read only so that closing it never writes to it.
         Workbook wb;
-        Sheet sheet = null;
         try {
-            wb = WorkbookFactory.create(inFile);
-            sheet = wb.getSheetAt(0);
+            wb = WorkbookFactory.create(inFile, null, true);
         } catch (IOException e) {
             outputLog.write("Something went wrong reading the input.\n");
             e.printStackTrace();
+            return;
         }
 
         // try to read the data.
-        assert sheet != null;
+        try (wb) {
+            readSheet(wb.getSheetAt(0));
+        }
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#readInput()}. Reads every row of a sheet held in memory.
+     * @throws IOException
+     */
+    private void readSheet(Sheet sheet) throws IOException {
+        String nameCell;
+        String addressCell;
+        String dateCell;
+        String taskCell;
+        double timeCell;
+        String classCell;
+        String multiplierCell;
+
+        readProgress.start(sheet.getLastRowNum() + 1);
+        // cells are read as the same text the streaming reader hands on, e.g. numeric dates as dd-MMM-yyyy.
+        StreamingSheetReader.RawFormatter formatter = new StreamingSheetReader.RawFormatter();
         for (Row row : sheet) {
+            checkCancelled();
+            readProgress.step();
             Iterator<Cell> cellIterator = row.cellIterator();
-            Cell cell;
             try {
-                cell = cellIterator.next();
-                nameCell = cell.getStringCellValue().strip();
-                cell = cellIterator.next();
-                addressCell = cell.getStringCellValue().strip();
-                cell = cellIterator.next();
-                dateCell = cell.getStringCellValue().strip();
-                cell = cellIterator.next();
-                taskCell = cell.getStringCellValue().strip();
-                cell = cellIterator.next();
-                timeCell = cell.getNumericCellValue();
-                cell = cellIterator.next();
-                classCell = cell.getStringCellValue().strip();
+                nameCell = formatter.formatCell(cellIterator.next()).strip();
+                addressCell = formatter.formatCell(cellIterator.next()).strip();
+                dateCell = formatter.formatCell(cellIterator.next()).strip();
+                taskCell = formatter.formatCell(cellIterator.next()).strip();
+                timeCell = Double.parseDouble(formatter.formatCell(cellIterator.next()));
+                classCell = formatter.formatCell(cellIterator.next()).strip();
                 if (cellIterator.hasNext()) {
-                    cell = cellIterator.next();
-                    multiplierCell = cell.getStringCellValue().strip();
+                    multiplierCell = formatter.formatCell(cellIterator.next()).strip();
                 } else {
                     multiplierCell = "";
                 }
             } catch (Exception e) {
-                outputLog.write("Something went wrong reading the daily tasks at row ");
-                outputLog.write((row.getRowNum() + 1) + ". Skipped this row.\n");
+                countRow(row.getRowNum(), (Object[]) null);
+                if (checkpoint != null && checkpoint.isStale()) return;
+                continue;
+            }
+            if (!countRow(row.getRowNum(), nameCell, addressCell, dateCell, taskCell, timeCell, classCell,
+                    multiplierCell)) {
+                // covered by the checkpoint, or the checkpoint is stale and the input is read again anyway.
+                if (checkpoint.isStale()) return;
                 continue;
             }
-            if (nameCell == null || addressCell == null || dateCell == null || taskCell == null || timeCell == -1 || classCell == null) {
-                outputLog.write("Row " + row.getRowNum() + " is not formatted correctly.");
+            if (!inputRow(row.getRowNum(), nameCell, addressCell, dateCell, taskCell, timeCell, classCell, multiplierCell)) {
                 return;
             }
+        }
+        readProgress.finish();
+    }
+
+    /**
+     * Loads shift data from {@link LaborGenerator#inFile} through a {@link StreamingSheetReader}, so that the
+     * workbook is never held in memory as a whole. Rows are skipped and logged the same way as in
+     * {@link LaborGenerator#parseData()}.
+     * @throws IOException
+     * @throws CancellationException {@link LaborGenerator#cancel()} was called, the rest of the sheet is not read.
+     */
+    private void parseDataStreaming() throws IOException {
+        readProgress.start(-1);
+        try {
+            new StreamingSheetReader(inFile).read(new ShiftRowHandler());
+        } catch (IOException e) {
+            outputLog.write("Something went wrong reading the input.\n");
+            e.printStackTrace();
+        }
+        readProgress.finish();
+    }
+
+    /**
+     * Receives rows from a {@link StreamingSheetReader} and applies the checks of {@link LaborGenerator#parseData()}
+     * to each of them.
+     */
+    private class ShiftRowHandler implements StreamingSheetReader.RowHandler {
+        private boolean stopped = false;
 
-            // try to input the row.
+        @Override
+        public void handleRow(int rowNum, ArrayList<String> cells) throws IOException {
+            // thrown through the reader, which stops parsing the sheet at this row.
+            checkCancelled();
+            if (stopped) return;
+            readProgress.step();
+            String nameCell;
+            String addressCell;
+            String dateCell;
+            String taskCell;
+            double timeCell;
+            String classCell;
+            String multiplierCell;
             try {
-                inputContainer(nameCell, addressCell, dateCell, taskCell, timeCell, classCell, multiplierCell);
+                nameCell = cells.get(0).strip();
+                addressCell = cells.get(1).strip();
+                dateCell = cells.get(2).strip();
+                taskCell = cells.get(3).strip();
+                timeCell = Double.parseDouble(cells.get(4));
+                classCell = cells.get(5).strip();
+                if (cells.size() > 6) {
+                    multiplierCell = cells.get(6).strip();
+                } else {
+                    multiplierCell = "";
+                }
             } catch (Exception e) {
-                outputLog.write(e + "\n");
+                countRow(rowNum, (Object[]) null);
+                stopped = checkpoint != null && checkpoint.isStale();
                 return;
             }
+            if (!countRow(rowNum, nameCell, addressCell, dateCell, taskCell, timeCell, classCell, multiplierCell)) {
+                // covered by the checkpoint, or the checkpoint is stale and the input is read again anyway.
+                stopped = checkpoint.isStale();
+                return;
+            }
+            stopped = !inputRow(rowNum, nameCell, addressCell, dateCell, taskCell, timeCell, classCell, multiplierCell);
+        }
+    }
+
+    /**
+     * Helper function of the readers of {@link LaborGenerator#readInput()}. Hashes a row into
+     * {@link LaborGenerator#checkpoint}, counts it, and logs it if it could not be read. Until the checkpoint is
+     * restored it is not known whether the rows it covers are kept, so their counts and messages are held back, then
+     * passed on by {@link LaborGenerator#settleHeldRows()} once it is restored or dropped if it turns out stale and
+     * the input is read again.
+     * @param fields The cells of the row, or null if it could not be read.
+     * @return True if the row has to be input, false if it could not be read or is covered by the checkpoint.
+     * @throws IOException
+     */
+    private boolean countRow(int rowNum, Object... fields) throws IOException {
+        boolean input = checkpoint == null || checkpoint.hashRow(rowNum, table, index, fields);
+        if (checkpoint != null && !checkpoint.isRestored()) {
+            if (!checkpoint.isStale()) {
+                heldRows++;
+                if (fields == null) heldSkippedRows.add(rowNum);
+            }
+            return false;
+        }
+        if (heldRows > 0) settleHeldRows();
+        rowsRead.increment();
+        if (fields == null) {
+            logSkippedRow(rowNum);
+            return false;
         }
+        return input;
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#parseData()}. Passes on the counts and messages of the rows held back
+     * by {@link LaborGenerator#countRow} if the checkpoint was restored, or drops them if it is stale.
+     * @throws IOException
+     */
+    private void settleHeldRows() throws IOException {
+        if (checkpoint.isRestored()) {
+            rowsRead.add(heldRows);
+            for (int rowNum : heldSkippedRows) {
+                logSkippedRow(rowNum);
+            }
+        }
+        heldRows = 0;
+        heldSkippedRows.clear();
+    }
+
+    private void logSkippedRow(int rowNum) throws IOException {
+        outputLog.write("Something went wrong reading the daily tasks at row ");
+        outputLog.write((rowNum + 1) + ". Skipped this row.\n");
+        rowsSkipped.increment();
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#parseData()}. Validates one row of data and hands it to
+     * {@link LaborGenerator#inputContainer}.
+     * @return False if the row is invalid and no further rows should be read.
+     * @throws IOException
+     */
+    private boolean inputRow(int rowNum, String name, String address, String date, String task, double time, String type, String multiplier) throws IOException {
+        if (name == null || address == null || date == null || task == null || time == -1 || type == null) {
+            outputLog.write("Row " + rowNum + " is not formatted correctly.");
+            inputStopped = true;
+            return false;
+        }
+
+        // try to input the row.
+        try {
+            inputContainer(name, address, date, task, time, type, multiplier);
+        } catch (Exception e) {
+            outputLog.write(e + "\n");
+            inputStopped = true;
+            return false;
+        }
+        return true;
     }
 
     /**
      * Helper function of {@link LaborGenerator#parseData()}. Takes a row of data from {@link LaborGenerator#inFile}
-     * and loads it into a {@link Container}.
+     * and loads it into {@link LaborGenerator#table}.
      * @throws Exception
      */
     private void inputContainer(String name, String address, String date, String task, double time, String type, String multiplier) throws Exception {
         // parse the raw date into usable data.
         // raw date in form 01-Mar-2021.
-        int day;
         String month;
-        int year;
         LocalDate containerDate;
 
-        DateTimeFormatter df = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
         try {
-            containerDate = LocalDate.parse(date, df);
-            String[] splitDate = date.split("-");
-            day = Integer.parseInt(splitDate[0]);
-            month = splitDate[1];
-            year = Integer.parseInt(splitDate[2]);
+            containerDate = LocalDate.parse(date, DATE_FORMAT);
+            month = date.split("-")[1];
         } catch (Exception e) {
             throw new Exception("Date is not formatted correctly.");
         }
 
-        // add new job to jobs list.
-        Job newJob = new Job(address);
-        Job jobRef = getJobRef(newJob);
-        // This doubles for checking if newJob is in jobs hashmap.
-        if (jobRef == null) {
-            jobRef = newJob;
-            jobs.put(jobRef, null);
-        }
-
-        // add new week to week list
-
-        // add new month to the specified job's month list.
-        Week newMonth = new Week(month, containerDate.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR),
-                                containerDate.get(ChronoField.ALIGNED_WEEK_OF_MONTH), year);
-        Week monthRef = jobRef.getWeekRef(newMonth);
-        if (monthRef == null) {
-            monthRef = newMonth;
-            jobRef.addWeek(monthRef);
-        }
-
-
-        // add new container to the specified month's container list.
         double doubleMultiplier;
         if (multiplier.equals("")) {
             doubleMultiplier = 1.0;
         } else {
             doubleMultiplier = Double.parseDouble(multiplier);
         }
-        Container newContainer = new Container(day, containerDate, name, task, time, type, doubleMultiplier);
-        Container containerRef = monthRef.getContainerRef(newContainer);
-        if (containerRef == null) {
-            containerRef = newContainer;
-            monthRef.addContainer(containerRef);
+
+        // add the shift to its job and week, or drop it if it is already there.
+        if (pipeline != null) {
+            pipeline.select(address);
+        }
+        int row = table.addRow(name, address, containerDate, task, time, type, doubleMultiplier);
+        if (!index.add(row, month)) {
+            table.removeLastRow();
+        } else if (checkpoint != null) {
+            checkpoint.addMonth(month);
+        } else if (pipeline != null) {
+            pipeline.addMonth(month);
         }
     }
 
-    private Job getJobRef(Job query) {
-        if (!jobs.containsKey(query)) return null;
-        for (Job job : jobs.keySet()) {
-            if (job.equals(query)) {
-                return job;
-            }
-        }
-        return null;
+    /**
+     * @return Every job read by {@link LaborGenerator#parseData()}, in input order.
+     */
+    ArrayList<Job> getJobs() {
+        return index.getJobs();
     }
 
     /**
-     * Populates the {@link Container#tax}, and {@link Container#wc}. Tax percentage is hard coded in :P.
-     * @param wcData Data used to calculate {@link Container#wc}.
+     * Populates the amount, tax, and wc columns of {@link LaborGenerator#table}, see
+     * {@link LaborGenerator#calculate(ShiftTable, ArrayList, DoubleDatedTable, DoubleDatedTable)}.
      * @throws Exception
      */
-    private void calculate(DatedTableData<String, Double> wcData, DatedTableData<String, Double> salaryData) throws Exception {
-        for (Job job : jobs.keySet()) {
+    void calculate(DoubleDatedTable wcData, DoubleDatedTable salaryData) throws Exception {
+        calculate(table, index.getJobs(), wcData, salaryData);
+    }
+
+    /**
+     * Populates the amount, tax, and wc columns of a table. Tax percentage is hard coded in :P, see
+     * {@link Money#TAX_BASIS_POINTS}.
+     * When {@link LaborGenerator#parallelism} is above 1, each week is looked up and then calculated as its own task on
+     * {@link LaborGenerator#calculationPool}, see {@link LaborGenerator#lookUpWeek} and {@link LaborGenerator#calculateWeek}.
+     * @param table The table to calculate.
+     * @param jobs Every job with rows in the table.
+     * @param wcData Data used to calculate the wc column.
+     * @param salaryData Data used to calculate the amount column.
+     * @throws Exception
+     */
+    private void calculate(ShiftTable table, ArrayList<Job> jobs, DoubleDatedTable wcData,
+                           DoubleDatedTable salaryData) throws Exception {
+        // resolve each worker and work type to its rate table column once, outside of the row loop.
+        int[] salaryColumns = resolveColumns(table.workers, salaryData);
+        int[] wcColumns = resolveColumns(table.types, wcData);
+
+        int size = table.size;
+        int[] worker = table.worker;
+        int[] type = table.type;
+        int[] salaryColumn = new int[size];
+        int[] wcColumn = new int[size];
+        for (int row = 0; row < size; row++) {
+            salaryColumn[row] = salaryColumns[worker[row]];
+            wcColumn[row] = wcColumns[type[row]];
+        }
+        double[] salary = new double[size];
+        double[] wcRate = new double[size];
+        metrics.add("shiftsCalculated", size);
+        // one salary and one wc rate per shift.
+        metrics.add("rateLookups", 2L * size);
+
+        if (parallelism > 1) {
+            ArrayList<Week> weeks = new ArrayList<>();
+            for (Job job : jobs) {
+                weeks.addAll(job.getWeeks());
+            }
+            calculationPool.submit(() -> weeks.parallelStream().forEach(week ->
+                    lookUpWeek(week, wcData, salaryData, salaryColumn, wcColumn, salary, wcRate))).get();
+            checkRates(table, salary, wcRate);
+            calculationPool.submit(() -> weeks.parallelStream().forEach(week ->
+                    calculateWeek(week, salary, wcRate))).get();
+            fingerprintJobs(jobs, salary, wcRate);
+            return;
+        }
+
+        // look every rate up in one date ordered pass over each table.
+        int[] rowsByDate = table.getRowsByDate();
+        salaryData.getValues(rowsByDate, size, salaryColumn, table.epochDay, salary);
+        wcData.getValues(rowsByDate, size, wcColumn, table.epochDay, wcRate);
+        checkRates(table, salary, wcRate);
+        for (int row = 0; row < size; row++) {
+            calculateRow(table, row, salary[row], wcRate[row]);
+        }
+        for (Job job : jobs) {
             for (Week month : job.getWeeks()) {
-                for (Container cntr : month.getContainers()) {
-                    try {
-                        cntr.amount = salaryData.getValue(cntr.name, cntr.date) * cntr.time * cntr.multiplier;
-                        cntr.wc = ((int) Math.round(cntr.amount * wcData.getValue(cntr.type, cntr.date)) / 100d);
-                        //TODO: Unhardcode tax percentage.
-                        cntr.tax = ((int) Math.round(cntr.amount * 7.7)) / 100d;
-                    } catch (Exception e) {
-                        outputLog.write("It is probable that " + cntr.name);
-                        outputLog.write(" is misspelled or missing from the salaries file.\n");
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
                 month.calculateDailyTotals();
                 month.calculateTaskTotals();
             }
         }
+        fingerprintJobs(jobs, salary, wcRate);
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#calculate}. Looks up the rates of one week's rows. Weeks share no rows,
+     * so any number of weeks can be looked up at once while the rate tables are only read. Rates that cannot be found
+     * are left as {@link Double#NaN} for {@link LaborGenerator#checkRates} to report.
+     */
+    private static void lookUpWeek(Week week, DoubleDatedTable wcData, DoubleDatedTable salaryData,
+                                   int[] salaryColumn, int[] wcColumn, double[] salary, double[] wcRate) {
+        ShiftTable table = week.getTable();
+        int[] rowsByDate = week.getRowsByDate();
+        salaryData.getValues(rowsByDate, rowsByDate.length, salaryColumn, table.epochDay, salary);
+        wcData.getValues(rowsByDate, rowsByDate.length, wcColumn, table.epochDay, wcRate);
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#calculate}. Fills in the amount, wc, and tax of one week's rows from
+     * rates already looked up and checked, and totals the week. Like {@link LaborGenerator#lookUpWeek}, any number of
+     * weeks can be calculated at once.
+     */
+    private static void calculateWeek(Week week, double[] salary, double[] wcRate) {
+        ShiftTable table = week.getTable();
+        for (int row : week.getRowsByDate()) {
+            calculateRow(table, row, salary[row], wcRate[row]);
+        }
+        week.calculateDailyTotals();
+        week.calculateTaskTotals();
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#calculate}. Amounts are rounded to the cent once, and wc and tax are
+     * derived from the rounded amount in {@link Money} fixed point.
+     */
+    private static void calculateRow(ShiftTable table, int row, double salary, double wcRate) {
+        long amount = Money.toCents(salary * table.time[row] * table.multiplier[row]);
+        table.amount[row] = amount;
+        table.wc[row] = Money.applyRate(amount, Money.toBasisPoints(wcRate));
+        table.tax[row] = Money.applyRate(amount, Money.TAX_BASIS_POINTS);
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#calculate}. Fingerprints every calculated job when
+     * {@link LaborGenerator#skipUnchanged} is set, see {@link ReportManifest#fingerprint}.
+     */
+    private void fingerprintJobs(ArrayList<Job> jobs, double[] salary, double[] wcRate) {
+        if (!skipUnchanged) return;
+        for (Job job : jobs) {
+            fingerprints.put(job, ReportManifest.fingerprint(job, salary, wcRate));
+        }
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#calculate}. Reports the first row, in table order, whose salary or wc
+     * rate could not be found.
+     * @throws DatedTableException A rate is missing.
+     */
+    private void checkRates(ShiftTable table, double[] salary, double[] wcRate) throws IOException, DatedTableException {
+        for (int row = 0; row < salary.length; row++) {
+            if (Double.isNaN(salary[row]) || Double.isNaN(wcRate[row])) {
+                outputLog.write("It is probable that " + table.getWorker(row));
+                outputLog.write(" is misspelled or missing from the salaries file.\n");
+                DatedTableException e = new DatedTableException("No rate for " + table.getWorker(row) + ", "
+                        + table.getType(row) + " on " + table.getDate(row) + ".");
+                e.printStackTrace();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Helper function of {@link LaborGenerator#calculate}.
+     * @return The rate table column id of every id in the dictionary, -1 where the rate table has no such column.
+     */
+    private static int[] resolveColumns(StringDictionary dictionary, DoubleDatedTable rates) {
+        int[] columns = new int[dictionary.size()];
+        for (int id = 0; id < columns.length; id++) {
+            columns[id] = rates.getColumnId(dictionary.get(id));
+        }
+        return columns;
     }
 }
@@ -1,6 +1,7 @@
 package com.jdbaptista.app.labor;
 
 import com.jdbaptista.app.labor.error.*;
+import com.jdbaptista.app.report.ProgressListener;
 
 import java.io.File;
 import java.io.OutputStream;
@@ -14,6 +15,15 @@ public class LaborGeneratorBuilder {
 
     // optional parameters
     private OutputStream outputLog;
+    private boolean streamingInput;
+    private boolean streamingOutput;
+    private int parallelism = 1;
+    private boolean skipUnchanged;
+    private boolean incrementalInput;
+    private boolean rateSnapshots;
+    private boolean pipelined;
+    private ProgressListener progressListener;
+    private boolean runReport;
 
     public LaborGenerator build() throws LaborGeneratorException {
         // validate attributes
@@ -21,6 +31,8 @@ public class LaborGeneratorBuilder {
         this.workCompFile = validateWorkCompFile(workCompFile);
         this.salaryFile = validateSalaryFile(salaryFile);
         this.outputLog = validateOutputLog(outputLog);
+        this.parallelism = validateParallelism(parallelism);
+        this.pipelined = validatePipelined(pipelined);
         return new LaborGenerator(this);
     }
 
@@ -37,9 +49,9 @@ public class LaborGeneratorBuilder {
     }
 
     protected File validateFile(File file, String expectedName) throws LaborGeneratorException {
-        if (!salaryFile.canRead())
+        if (!file.canRead())
             throw new LaborGeneratorException(file.getName() + " cannot be read!");
-        if (!salaryFile.getName().equals(expectedName))
+        if (!file.getName().equals(expectedName))
             throw new LaborGeneratorException(file.getAbsolutePath() + "is misnamed!");
         return file;
     }
@@ -49,6 +61,18 @@ public class LaborGeneratorBuilder {
         return outputLog;
     }
 
+    protected int validateParallelism(int parallelism) throws LaborGeneratorException {
+        if (parallelism < 1)
+            throw new LaborGeneratorException("Parallelism must be at least 1, was " + parallelism + ".");
+        return parallelism;
+    }
+
+    protected boolean validatePipelined(boolean pipelined) throws LaborGeneratorException {
+        if (pipelined && incrementalInput)
+            throw new LaborGeneratorException("Pipelined reports cannot be combined with incremental input.");
+        return pipelined;
+    }
+
     public File getInFile() {
         return inFile;
     }
@@ -69,6 +93,42 @@ public class LaborGeneratorBuilder {
         return outputLog;
     }
 
+    public boolean isStreamingInput() {
+        return streamingInput;
+    }
+
+    public boolean isStreamingOutput() {
+        return streamingOutput;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    public boolean isIncrementalInput() {
+        return incrementalInput;
+    }
+
+    public boolean isRateSnapshots() {
+        return rateSnapshots;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public ProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public boolean isRunReport() {
+        return runReport;
+    }
+
     /**
      * Sets the input file containing daily employee shift data. Each row of the file should be formatted as:
      * (employee name as referred to in {@link LaborGeneratorBuilder#salaryFile}, job/client name, shift date,
@@ -84,7 +144,7 @@ public class LaborGeneratorBuilder {
     }
 
     /**
-     * Sets file containing worker compensation data of {@link DatedTableData} form, where the column label type is
+     * Sets file containing worker compensation data of {@link DoubleDatedTable} form, where the column label type is
      * an integer code of the work type and the changing value type is a currency/floating point number describing
      * the percentage of wage taken by worker's compensation.
      */
@@ -94,7 +154,7 @@ public class LaborGeneratorBuilder {
     }
 
     /**
-     * Sets file containing salary data of {@link DatedTableData} form, where the column label type is employee names
+     * Sets file containing salary data of {@link DoubleDatedTable} form, where the column label type is employee names
      * as a string, and the changing value type is a currency/floating point number describing hourly wage.
      */
     public LaborGeneratorBuilder setSalaryFile(File salaryFile) {
@@ -119,4 +179,101 @@ public class LaborGeneratorBuilder {
         this.outputLog = outputLog;
         return this;
     }
+
+    /**
+     * An advanced, optional setting.
+     * Reads {@link LaborGeneratorBuilder#inFile} row by row with {@link StreamingSheetReader} instead of loading the
+     * whole workbook, which keeps memory use constant for large shift histories. Defaults to false.
+     */
+    public LaborGeneratorBuilder setStreamingInput(boolean streamingInput) {
+        this.streamingInput = streamingInput;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Writes reports through a streaming workbook that only keeps a small window of rows in memory, so that memory
+     * use does not grow with the number of weeks in a job. Defaults to false.
+     */
+    public LaborGeneratorBuilder setStreamingOutput(boolean streamingOutput) {
+        this.streamingOutput = streamingOutput;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Sets the number of threads used to calculate report data and write reports. Above 1, weeks are calculated
+     * concurrently on a fork join pool of that size, giving the same numbers as the sequential calculation, and that
+     * many reports are written at once. Defaults to 1.
+     */
+    public LaborGeneratorBuilder setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Only writes the reports of jobs that changed since the last run into the same output folder, keeping a
+     * fingerprint of each report in a {@link ReportManifest} there. A report that was deleted is always written
+     * again. Defaults to false.
+     */
+    public LaborGeneratorBuilder setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Keeps an {@link IngestCheckpoint} of the shifts read from {@link LaborGeneratorBuilder#inFile} in the output
+     * folder, so that later runs only input the rows added since. Rows read before are still scanned to make sure
+     * they did not change; if one did, the whole file is input again. Defaults to false.
+     */
+    public LaborGeneratorBuilder setIncrementalInput(boolean incrementalInput) {
+        this.incrementalInput = incrementalInput;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Keeps a {@link DatedTableSnapshot} of {@link LaborGeneratorBuilder#workCompFile} and
+     * {@link LaborGeneratorBuilder#salaryFile} in the output folder, so that they are only opened again once they
+     * change. Defaults to false.
+     */
+    public LaborGeneratorBuilder setRateSnapshots(boolean rateSnapshots) {
+        this.rateSnapshots = rateSnapshots;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Calculates and writes each job's report while the rest of {@link LaborGeneratorBuilder#inFile} is still being
+     * read, instead of reading every row first. Works best when the input is grouped by job; a job found again later
+     * in the input has its report written again, never while its earlier report is still being written. Cannot be
+     * combined with incremental input. Defaults to false.
+     */
+    public LaborGeneratorBuilder setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Sets the listener told how many shift rows were read and reports written as the generator runs, called from
+     * the generator's threads. Defaults to none.
+     */
+    public LaborGeneratorBuilder setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * An advanced, optional setting.
+     * Appends how long each stage of every run took and counts of what it did, such as rows read, rate lookups, and
+     * cells and bytes written, to {@link LaborGenerator#RUN_REPORT} in the output folder, one JSON object per run.
+     * Defaults to false.
+     */
+    public LaborGeneratorBuilder setRunReport(boolean runReport) {
+        this.runReport = runReport;
+        return this;
+    }
 }
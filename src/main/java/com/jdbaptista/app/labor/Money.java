@@ -0,0 +1,66 @@
+package com.jdbaptista.app.labor;
+
+/**
+ * Fixed point arithmetic used for every amount calculated by {@link LaborGenerator}. Money is held as a long number
+ * of cents, rates as a long number of basis points (hundredths of a percent), and hours as a long number of
+ * hundredths of an hour, so that totals are exact sums. Values are rounded once, to the nearest unit, when they enter
+ * fixed point, and are turned back into doubles only when written by {@link Formatter}.
+ * <p>
+ * Rounding from a double rounds the double product of the value times 100, halves up, not the decimal the value was
+ * written as. 0.125 dollars is held exactly, so its product is 12.5 and rounds up to 13 cents, but 1.005 is held as
+ * 1.00499999..., so its product is 100.49999999999999 and rounds down to 100 cents. Only
+ * {@link Money#applyRate(long, long)} works on exact integers, where every half rounds up.
+ */
+public final class Money {
+    /**
+     * Basis points in a whole, the divisor of {@link Money#applyRate(long, long)}.
+     */
+    public static final long WHOLE = 10_000;
+    //TODO: Unhardcode tax percentage.
+    public static final long TAX_BASIS_POINTS = 770;
+
+    private Money() {}
+
+    /**
+     * @param dollars An amount of money, e.g. an hourly wage.
+     * @return The amount in cents, rounded to the nearest cent, see {@link Money} for how halves round.
+     */
+    public static long toCents(double dollars) {
+        return Math.round(dollars * 100);
+    }
+
+    public static double toDollars(long cents) {
+        return cents / 100d;
+    }
+
+    /**
+     * @param percent A percentage, e.g. 9.79 for 9.79%.
+     * @return The percentage in basis points, rounded to the nearest basis point, see {@link Money} for how halves
+     * round.
+     */
+    public static long toBasisPoints(double percent) {
+        return Math.round(percent * 100);
+    }
+
+    /**
+     * @param hours A number of hours.
+     * @return The hours in hundredths of an hour, rounded to the nearest hundredth, see {@link Money} for how halves
+     * round.
+     */
+    public static long toHundredths(double hours) {
+        return Math.round(hours * 100);
+    }
+
+    public static double toHours(long hundredths) {
+        return hundredths / 100d;
+    }
+
+    /**
+     * @param cents An amount of money in cents.
+     * @param basisPoints A rate in basis points.
+     * @return The rate of the amount in cents, rounded to the nearest cent with exact halves rounded up.
+     */
+    public static long applyRate(long cents, long basisPoints) {
+        return Math.floorDiv(cents * basisPoints + WHOLE / 2, WHOLE);
+    }
+}
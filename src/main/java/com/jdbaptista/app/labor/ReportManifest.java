@@ -0,0 +1,141 @@
+package com.jdbaptista.app.labor;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Remembers a fingerprint of every report written to an output folder, so that a report whose {@link Job} has not
+ * changed since it was last written does not have to be written again. A fingerprint covers everything a report is
+ * made of: the shifts of the job, the rates they were calculated with, the calculated amounts, and
+ * {@link Formatter#VERSION}. The manifest is kept as one line per report in {@link ReportManifest#FILE_NAME} inside
+ * the output folder.
+ */
+public class ReportManifest {
+    public static final String FILE_NAME = ".labor-manifest";
+
+    final private File outFolder;
+    final private TreeMap<String, String> fingerprints;
+
+    private ReportManifest(File outFolder) {
+        this.outFolder = outFolder;
+        fingerprints = new TreeMap<>();
+    }
+
+    /**
+     * Reads the manifest of an output folder. A missing or unreadable manifest is read as empty, so that every report
+     * is written again.
+     * @param outFolder The folder reports are written to.
+     */
+    public static ReportManifest load(String outFolder) {
+        ReportManifest ret = new ReportManifest(new File(outFolder));
+        File file = new File(outFolder, FILE_NAME);
+        if (!file.isFile()) return ret;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // fingerprint, a space, then the address which may itself hold spaces.
+                int split = line.indexOf(' ');
+                if (split > 0) {
+                    ret.fingerprints.put(line.substring(split + 1), line.substring(0, split));
+                }
+            }
+        } catch (IOException e) {
+            ret.fingerprints.clear();
+        }
+        return ret;
+    }
+
+    /**
+     * @return True if the report of the job was last written with the same fingerprint and is still in the output
+     * folder.
+     */
+    public boolean isUnchanged(Job job, String fingerprint) {
+        return fingerprint.equals(fingerprints.get(job.getAddress()))
+                && new File(outFolder, job.getAddress() + ".xlsx").isFile();
+    }
+
+    public void put(Job job, String fingerprint) {
+        fingerprints.put(job.getAddress(), fingerprint);
+    }
+
+    public void remove(Job job) {
+        fingerprints.remove(job.getAddress());
+    }
+
+    /**
+     * Writes the manifest to the output folder, replacing the previous one in a single move so that an interrupted
+     * save leaves the old manifest behind rather than a partial one.
+     * @throws IOException
+     */
+    public void save() throws IOException {
+        Path target = new File(outFolder, FILE_NAME).toPath();
+        Path temp = new File(outFolder, FILE_NAME + ".tmp").toPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                writer.write(entry.getValue() + " " + entry.getKey() + "\n");
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Fingerprints the report of a calculated job. Weeks are taken in the order the report writes them and shifts in
+     * the order of their week, so any change to what the report shows changes the fingerprint.
+     * @param salary The salary of every row of the job's {@link ShiftTable}, as calculated with.
+     * @param wcRate The wc rate of every row of the job's {@link ShiftTable}, as calculated with.
+     * @return SHA-256 of the job as a hex string.
+     */
+    public static String fingerprint(Job job, double[] salary, double[] wcRate) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+        ArrayList<Week> weeks = new ArrayList<>(job.getWeeks());
+        weeks.sort(Collections.reverseOrder());
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            out.writeInt(Formatter.VERSION);
+            out.writeUTF(job.getAddress());
+            out.writeInt(weeks.size());
+            for (Week week : weeks) {
+                ShiftTable table = week.getTable();
+                out.writeInt(week.getYear());
+                out.writeInt(week.getWeek());
+                out.writeUTF(week.strMonth);
+                out.writeInt(week.weekOfMonth);
+                out.writeInt(week.getRowCount());
+                for (int i = 0; i < week.getRowCount(); i++) {
+                    int row = week.getRow(i);
+                    out.writeUTF(table.getWorker(row));
+                    out.writeInt(table.getEpochDay(row));
+                    out.writeUTF(table.getTask(row));
+                    out.writeDouble(table.getTime(row));
+                    out.writeUTF(table.getType(row));
+                    out.writeDouble(table.getMultiplier(row));
+                    out.writeDouble(salary[row]);
+                    out.writeDouble(wcRate[row]);
+                    out.writeLong(table.getAmount(row));
+                    out.writeLong(table.getWc(row));
+                    out.writeLong(table.getTax(row));
+                }
+            }
+        } catch (IOException e) {
+            // the digest stream writes nowhere and cannot fail.
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
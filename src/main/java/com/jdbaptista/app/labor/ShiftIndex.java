@@ -0,0 +1,122 @@
+package com.jdbaptista.app.labor;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoField;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Groups the rows of a {@link ShiftTable} into {@link Job} and {@link Week} as they are loaded, in constant time per
+ * row. Jobs are found by address id, weeks by {@link Week#key(int, int)}, and duplicate shifts through an open
+ * addressing hash set of rows keyed by {@link ShiftTable#shiftHash(int)}.
+ */
+public class ShiftIndex {
+    private static final int EMPTY = -1;
+
+    final private ShiftTable table;
+    /**
+     * Jobs in order of first appearance, which is also the order of their address ids.
+     */
+    final private ArrayList<Job> jobs;
+    /**
+     * Rows of every distinct shift, or {@link ShiftIndex#EMPTY}. Length is always a power of two.
+     */
+    private int[] shifts;
+    private int shiftCount;
+
+    public ShiftIndex(ShiftTable table) {
+        this.table = table;
+        jobs = new ArrayList<>();
+        shifts = new int[1024];
+        Arrays.fill(shifts, EMPTY);
+    }
+
+    /**
+     * Files a row of the table under its job and week, creating either if needed.
+     * @param row A row of the table.
+     * @param month The month of the row's date as written in the input, used to title a new week.
+     * @return False if the row is a duplicate of a shift that was already added, in which case it is not filed.
+     */
+    public boolean add(int row, String month) {
+        // find or create the job.
+        int addressId = table.address[row];
+        while (jobs.size() <= addressId) {
+            jobs.add(null);
+        }
+        Job job = jobs.get(addressId);
+        if (job == null) {
+            job = new Job(table.getAddress(row));
+            jobs.set(addressId, job);
+        }
+
+        // find or create the week.
+        LocalDate date = table.getDate(row);
+        int weekOfYear = date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+        int year = date.getYear();
+        Week week = job.getWeek(Week.key(year, weekOfYear));
+        if (week == null) {
+            week = new Week(table, month, weekOfYear, date.get(ChronoField.ALIGNED_WEEK_OF_MONTH), year);
+            job.addWeek(week);
+        }
+
+        // file the row unless the same shift is already there.
+        if (!insertShift(row)) {
+            return false;
+        }
+        week.addRow(row);
+        return true;
+    }
+
+    /**
+     * @return The table whose rows this index files.
+     */
+    public ShiftTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return Every job in order of first appearance.
+     */
+    public ArrayList<Job> getJobs() {
+        ArrayList<Job> ret = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            if (job != null) ret.add(job);
+        }
+        return ret;
+    }
+
+    /**
+     * @return True if the row was added, false if an equal shift is already in the set.
+     */
+    private boolean insertShift(int row) {
+        int mask = shifts.length - 1;
+        int slot = table.shiftHash(row) & mask;
+        while (shifts[slot] != EMPTY) {
+            if (table.isSameShift(shifts[slot], row)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        shifts[slot] = row;
+        if (++shiftCount * 2 > shifts.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] old = shifts;
+        shifts = new int[old.length * 2];
+        Arrays.fill(shifts, EMPTY);
+        int mask = shifts.length - 1;
+        for (int row : old) {
+            if (row == EMPTY) continue;
+            int slot = table.shiftHash(row) & mask;
+            while (shifts[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            shifts[slot] = row;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.jdbaptista.app.labor;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Stores every shift loaded by {@link LaborGenerator} as parallel primitive arrays, one per attribute, instead of
+ * one object per shift. Strings are replaced by ids from a {@link StringDictionary} per attribute and dates by their
+ * epoch day. A shift is referred to by its row index, and {@link Week} keeps the rows that belong to it.
+ */
+public class ShiftTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    final StringDictionary workers = new StringDictionary();
+    final StringDictionary tasks = new StringDictionary();
+    final StringDictionary types = new StringDictionary();
+    final StringDictionary addresses = new StringDictionary();
+
+    int size;
+    // input columns
+    int[] worker = new int[INITIAL_CAPACITY];
+    int[] task = new int[INITIAL_CAPACITY];
+    int[] type = new int[INITIAL_CAPACITY];
+    int[] address = new int[INITIAL_CAPACITY];
+    int[] epochDay = new int[INITIAL_CAPACITY];
+    byte[] day = new byte[INITIAL_CAPACITY];
+    double[] time = new double[INITIAL_CAPACITY];
+    double[] multiplier = new double[INITIAL_CAPACITY];
+    // calculated columns, in cents, see Money
+    long[] amount = new long[INITIAL_CAPACITY];
+    long[] wc = new long[INITIAL_CAPACITY];
+    long[] tax = new long[INITIAL_CAPACITY];
+
+    /**
+     * Appends a shift to the end of the table.
+     * @return The row index of the new shift.
+     */
+    public int addRow(String worker, String address, LocalDate date, String task, double time, String type, double multiplier) {
+        if (size == this.worker.length) {
+            grow();
+        }
+        int row = size++;
+        this.worker[row] = workers.intern(worker);
+        this.address[row] = addresses.intern(address);
+        this.epochDay[row] = (int) date.toEpochDay();
+        this.day[row] = (byte) date.getDayOfMonth();
+        this.task[row] = tasks.intern(task);
+        this.time[row] = time;
+        this.type[row] = types.intern(type);
+        this.multiplier[row] = multiplier;
+        this.amount[row] = -1;
+        return row;
+    }
+
+    /**
+     * Removes the most recently added shift, used to drop a shift that turned out to be a duplicate.
+     */
+    public void removeLastRow() {
+        size--;
+    }
+
+    /**
+     * @return True if both rows describe the same shift: same job, date, worker, task, hours and work type.
+     */
+    public boolean isSameShift(int a, int b) {
+        return epochDay[a] == epochDay[b] && Double.compare(time[a], time[b]) == 0 && type[a] == type[b]
+                && worker[a] == worker[b] && task[a] == task[b] && address[a] == address[b];
+    }
+
+    /**
+     * @return A hash of the attributes compared by {@link ShiftTable#isSameShift(int, int)}.
+     */
+    public int shiftHash(int row) {
+        int hash = address[row];
+        hash = 31 * hash + epochDay[row];
+        hash = 31 * hash + worker[row];
+        hash = 31 * hash + task[row];
+        hash = 31 * hash + type[row];
+        hash = 31 * hash + Double.hashCode(time[row]);
+        // spread the high bits, the hash is masked down to a table index.
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return Every row index of the table ordered by date, rows of the same date staying in table order.
+     */
+    public int[] getRowsByDate() {
+        int[] rows = new int[size];
+        boolean sorted = true;
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+            sorted &= row == 0 || epochDay[row - 1] <= epochDay[row];
+        }
+        if (sorted) {
+            return rows;
+        }
+        // packing the row under the date keeps equal dates in table order.
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = ((long) epochDay[row] << 32) | row;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < size; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return rows;
+    }
+
+    private void grow() {
+        int capacity = worker.length * 2;
+        worker = Arrays.copyOf(worker, capacity);
+        task = Arrays.copyOf(task, capacity);
+        type = Arrays.copyOf(type, capacity);
+        address = Arrays.copyOf(address, capacity);
+        epochDay = Arrays.copyOf(epochDay, capacity);
+        day = Arrays.copyOf(day, capacity);
+        time = Arrays.copyOf(time, capacity);
+        multiplier = Arrays.copyOf(multiplier, capacity);
+        amount = Arrays.copyOf(amount, capacity);
+        wc = Arrays.copyOf(wc, capacity);
+        tax = Arrays.copyOf(tax, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getWorker(int row) {
+        return workers.get(worker[row]);
+    }
+
+    public String getTask(int row) {
+        return tasks.get(task[row]);
+    }
+
+    public String getType(int row) {
+        return types.get(type[row]);
+    }
+
+    public String getAddress(int row) {
+        return addresses.get(address[row]);
+    }
+
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(epochDay[row]);
+    }
+
+    public int getEpochDay(int row) {
+        return epochDay[row];
+    }
+
+    public int getDay(int row) {
+        return day[row];
+    }
+
+    public double getTime(int row) {
+        return time[row];
+    }
+
+    public double getMultiplier(int row) {
+        return multiplier[row];
+    }
+
+    /**
+     * @return The amount paid for the shift in cents.
+     */
+    public long getAmount(int row) {
+        return amount[row];
+    }
+
+    /**
+     * @return The worker compensation of the shift in cents.
+     */
+    public long getWc(int row) {
+        return wc[row];
+    }
+
+    /**
+     * @return The tax of the shift in cents.
+     */
+    public long getTax(int row) {
+        return tax[row];
+    }
+
+    /**
+     * @return The amount, worker compensation, and tax of the shift together in cents.
+     */
+    public long getTotal(int row) {
+        return amount[row] + wc[row] + tax[row];
+    }
+}
@@ -0,0 +1,158 @@
+package com.jdbaptista.app.labor;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Reads the first sheet of a .xlsx file through POI's event model ({@link XSSFReader}) instead of building the whole
+ * workbook in memory. Rows are handed to a {@link RowHandler} as soon as they are parsed, so heap use is bounded by
+ * the shared strings table and a single row no matter how long the sheet is.
+ * <p>
+ * Cells are reported in the order they appear in the row, skipping cells that do not exist, which matches
+ * {@link org.apache.poi.ss.usermodel.Row#cellIterator()}. Every value is reported as text: dates in the
+ * dd-MMM-yyyy form used by the input files and other numbers without any display formatting applied.
+ */
+public class StreamingSheetReader {
+
+    /**
+     * Receives the rows of a sheet in order.
+     */
+    public interface RowHandler {
+        /**
+         * @param rowNum Zero based row number as stored in the file.
+         * @param cells The text of each present cell in the row. Only valid until this method returns.
+         * @throws IOException Kept and thrown from {@link StreamingSheetReader#read} once the sheet is parsed, the
+         * remaining rows are not handed on. An unchecked exception instead stops parsing at this row and is thrown
+         * from {@link StreamingSheetReader#read} as is.
+         */
+        void handleRow(int rowNum, ArrayList<String> cells) throws IOException;
+    }
+
+    final private File file;
+
+    public StreamingSheetReader(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Streams every row of the first sheet to the handler.
+     * @param handler Target of each parsed row.
+     * @throws IOException The file could not be opened or is not a valid .xlsx file.
+     */
+    public void read(RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException(file.getName() + " contains no sheets.");
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                RowCollector collector = new RowCollector(handler);
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, collector, new RawFormatter(), false));
+                parser.parse(new InputSource(sheet));
+                if (collector.error != null) throw collector.error;
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read " + file.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Buffers the cells of the current row and forwards the row once it ends. The buffer is reused for every row.
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        final private RowHandler handler;
+        final private ArrayList<String> cells = new ArrayList<>();
+        private IOException error;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (error != null) return;
+            try {
+                handler.handleRow(rowNum, cells);
+            } catch (IOException e) {
+                // SheetContentsHandler cannot throw, keep the first failure for read() and ignore the rest.
+                error = e;
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+
+    /**
+     * Reports numbers as their stored value rather than their displayed value, so that a time of 7.25 formatted
+     * as a whole number is not read as 7. Dates are the exception and are written as dd-MMM-yyyy with English month
+     * names, whatever the locale of the machine. Also used by {@link LaborGenerator} to read a workbook held in
+     * memory as the same text, see {@link RawFormatter#formatCell(Cell)}.
+     */
+    static class RawFormatter extends DataFormatter {
+        final private DateTimeFormatter df = DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH);
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().format(df);
+            }
+            return NumberToTextConverter.toText(value);
+        }
+
+        /**
+         * @return The text the streaming reader hands on for the same cell. Formulas give their cached result.
+         */
+        String formatCell(Cell cell) {
+            CellType type = cell.getCellType();
+            if (type == CellType.FORMULA) {
+                type = cell.getCachedFormulaResultType();
+            }
+            if (type == CellType.NUMERIC) {
+                CellStyle style = cell.getCellStyle();
+                return formatRawCellContents(cell.getNumericCellValue(), style.getDataFormat(),
+                        style.getDataFormatString());
+            }
+            if (type == CellType.STRING) {
+                return cell.getStringCellValue();
+            }
+            return formatCellValue(cell);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.jdbaptista.app.labor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Assigns each distinct string a dense integer id, starting at 0 in order of first appearance. Used by
+ * {@link ShiftTable} so that repeated values such as employee names are stored once and referred to by id.
+ */
+public class StringDictionary {
+    final private HashMap<String, Integer> ids = new HashMap<>();
+    final private ArrayList<String> values = new ArrayList<>();
+
+    /**
+     * @param value The string to look up.
+     * @return The id of the value, assigning a new id if it has not been seen before.
+     */
+    public int intern(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * @param value The string to look up.
+     * @return The id of the value, or -1 if it has not been interned.
+     */
+    public int find(String value) {
+        Integer id = ids.get(value);
+        return (id == null) ? -1 : id;
+    }
+
+    public String get(int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -1,114 +1,179 @@
 package com.jdbaptista.app.labor;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Objects;
 
+/**
+ * Represents one week of one {@link Job}. The shifts of the week are rows of a {@link ShiftTable}, and the week only
+ * keeps their row indices.
+ */
 public class Week implements Comparable<Week> {
+    private static final int[] NO_ROWS = new int[0];
+
     final private int week;
     final private int year;
     final public String strMonth;
     final public int weekOfMonth;
-    final private ArrayList<Container> containers;
-    public HashMap<Integer, double[]> dailyTotals;
-    public HashMap<String, HashMap<String, double[]>> taskTotals;
-
-
-    public Week(String month, int week, int weekOfMonth, int year) {
+    final private ShiftTable table;
+    private int[] rows;
+    private int rowCount;
+    /**
+     * Totals of each day of the month as {amount, hours, wc, tax}, money in cents and hours in hundredths, see
+     * {@link Money}. Day 0 holds the total of the week.
+     */
+    public HashMap<Integer, long[]> dailyTotals;
+    /**
+     * Totals of each worker per task as {hours, amount + wc + tax}, in the units of {@link Week#dailyTotals}. The
+     * "Total" worker of each task holds the total of the task.
+     */
+    public HashMap<String, HashMap<String, long[]>> taskTotals;
+
+
+    public Week(ShiftTable table, String month, int week, int weekOfMonth, int year) {
+        this.table = table;
         this.strMonth = month;
         this.week = week;
         this.weekOfMonth = weekOfMonth;
         this.year = year;
-        containers = new ArrayList<>();
+        rows = NO_ROWS;
         dailyTotals = new HashMap<>();
         taskTotals = new HashMap<>();
     }
 
     public void calculateDailyTotals() {
-        for (Container container : containers) {
+        for (int i = 0; i < rowCount; i++) {
+            int row = rows[i];
+            int day = table.day[row];
+            long hours = Money.toHundredths(table.time[row]);
             // need this check because days are not unique in the list
-            if (!dailyTotals.containsKey(container.day)) {
-                double[] containerTotals = {container.amount, container.time, container.wc, container.tax};
-                dailyTotals.put(container.day, containerTotals);
+            long[] dayTotals = dailyTotals.get(day);
+            if (dayTotals == null) {
+                long[] rowTotals = {table.amount[row], hours, table.wc[row], table.tax[row]};
+                dailyTotals.put(day, rowTotals);
             } else {
-                double[] dayTotals = dailyTotals.get(container.day);
-                dayTotals[0] += container.amount;
-                dayTotals[1] += container.time;
-                dayTotals[2] += container.wc;
-                dayTotals[3] += container.tax;
+                dayTotals[0] += table.amount[row];
+                dayTotals[1] += hours;
+                dayTotals[2] += table.wc[row];
+                dayTotals[3] += table.tax[row];
             }
         }
 
-        double totalDailyAmount = 0;
-        double totalDailyTime = 0;
-        double totalDailyWC = 0;
-        double totalDailyTax = 0;
-        for (int day : dailyTotals.keySet()) {
-            double[] dayTotal = dailyTotals.get(day);
-            totalDailyAmount += dayTotal[0];
-            totalDailyTime += dayTotal[1];
-            totalDailyWC += dayTotal[2];
-            totalDailyTax += dayTotal[3];
+        long[] weekTotal = new long[4];
+        for (long[] dayTotal : dailyTotals.values()) {
+            for (int i = 0; i < weekTotal.length; i++) {
+                weekTotal[i] += dayTotal[i];
+            }
         }
-        double[] weekTotal = new double[] {(int) (totalDailyAmount * 100) / 100d, (int) (totalDailyTime * 100) / 100d, (int) (totalDailyWC * 100) / 100d, (int) (totalDailyTax * 100) / 100d};
         dailyTotals.put(0, weekTotal); // 0 is reserved for week total
     }
 
     public void calculateTaskTotals() {
-        for (Container container : containers) {
-            if (!taskTotals.containsKey(container.task)) {
-                HashMap<String, double[]> workerTotal = new HashMap<>();
-                double[] cellFormatted = {container.time, container.getTotal() + container.wc + container.tax};
-                workerTotal.put(container.name, cellFormatted);
-                taskTotals.put(container.task, workerTotal);
+        for (int i = 0; i < rowCount; i++) {
+            int row = rows[i];
+            String task = table.getTask(row);
+            String name = table.getWorker(row);
+            long hours = Money.toHundredths(table.time[row]);
+            long total = table.getTotal(row);
+            if (!taskTotals.containsKey(task)) {
+                HashMap<String, long[]> workerTotal = new HashMap<>();
+                long[] cellFormatted = {hours, total};
+                workerTotal.put(name, cellFormatted);
+                taskTotals.put(task, workerTotal);
             } else {
-                if (!taskTotals.get(container.task).containsKey(container.name)) {
-                    double[] cellFormatted = new double[] {container.time, container.getTotal() + container.wc + container.tax};
-                    taskTotals.get(container.task).put(container.name, cellFormatted);
+                if (!taskTotals.get(task).containsKey(name)) {
+                    long[] cellFormatted = new long[] {hours, total};
+                    taskTotals.get(task).put(name, cellFormatted);
                 } else {
-                    double[] totals = taskTotals.get(container.task).get(container.name);
-                    totals[0] += container.time;
-                    totals[1] += container.getTotal() + container.wc + container.tax;
+                    long[] totals = taskTotals.get(task).get(name);
+                    totals[0] += hours;
+                    totals[1] += total;
                 }
             }
         }
 
         for (String task : taskTotals.keySet()) {
-            HashMap<String, double[]> using = taskTotals.get(task);
-            double totalTime = 0;
-            double totalAmount = 0;
+            HashMap<String, long[]> using = taskTotals.get(task);
+            long totalTime = 0;
+            long totalAmount = 0;
             for (String container : using.keySet()) {
-                double[] array = using.get(container);
+                long[] array = using.get(container);
                 totalTime += array[0];
                 totalAmount += array[1];
             }
-            double[] retArray = new double[] {totalTime, totalAmount};
+            long[] retArray = new long[] {totalTime, totalAmount};
             using.put("Total", retArray);
         }
     }
 
-    public void addContainer(Container container) {
-        containers.add(container);
+    public void addRow(int row) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(8, rowCount * 2));
+        }
+        rows[rowCount++] = row;
     }
 
-    public ArrayList<Container> getContainers() {
-        return containers;
+    /**
+     * Orders the rows of this week by date, keeping rows of the same date in the order they were added.
+     */
+    public void sortRowsByDate() {
+        System.arraycopy(getRowsByDate(), 0, rows, 0, rowCount);
     }
 
-    public Container getContainerRef(Container query) {
-        if (!containers.contains(query)) return null;
-        for (Container container : containers) {
-            if (container.equals(query)) {
-                return container;
-            }
+    /**
+     * @return A copy of the rows of this week ordered by date, keeping rows of the same date in the order they were
+     * added. The rows of the week itself are left as they are.
+     */
+    public int[] getRowsByDate() {
+        // rows are added in increasing order, so packing the row under the date keeps equal dates stable.
+        long[] keys = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            keys[i] = ((long) table.epochDay[rows[i]] << 32) | rows[i];
+        }
+        Arrays.sort(keys);
+        int[] ret = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            ret[i] = (int) keys[i];
         }
-        return null;
+        return ret;
+    }
+
+    public ShiftTable getTable() {
+        return table;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param i Position within this week, between 0 and {@link Week#getRowCount()}.
+     * @return The {@link ShiftTable} row at that position.
+     */
+    public int getRow(int i) {
+        return rows[i];
     }
 
     public int getWeek() {
         return week;
     }
 
+    /**
+     * @return Key identifying this week within a {@link Job}, see {@link Week#key(int, int)}.
+     */
+    public int getKey() {
+        return key(year, week);
+    }
+
+    /**
+     * Packs a year and week number into one int that is unique per week, used to look weeks up without
+     * creating a {@link Week} to compare against.
+     * @param year The calendar year.
+     * @param week The ISO week of the week based year, 1 to 53.
+     */
+    public static int key(int year, int week) {
+        return (year << 6) | week;
+    }
+
     public int getYear() {
         return year;
     }
@@ -142,6 +207,6 @@ public class Week implements Comparable<Week> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(week, year);
+        return 31 * week + year;
     }
 }
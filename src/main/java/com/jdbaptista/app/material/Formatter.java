@@ -1,19 +1,44 @@
 package com.jdbaptista.app.material;
 
+import com.jdbaptista.app.report.ColumnWidthEstimator;
+import com.jdbaptista.app.report.StyleDefinition;
+import com.jdbaptista.app.report.StyleTemplate;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 
 public class Formatter {
+    private static final int CURRENCY_FORMAT = 8;
+    private static final StyleDefinition CELL = new StyleDefinition().verticalAlignment(VerticalAlignment.CENTER);
+    private static final StyleDefinition BOXED = CELL.border(BorderStyle.THIN);
+    private static final StyleTemplate STYLES = new StyleTemplate()
+            .define("TITLE", CELL.alignment(HorizontalAlignment.CENTER))
+            .define("HEADER", BOXED.bold())
+            .define("VENDORHEADER", BOXED.alignment(HorizontalAlignment.CENTER).bold())
+            .define("CLIENT", BOXED.bold())
+            .define("VENDOR", BOXED)
+            .define("DATE", BOXED)
+            .define("AMOUNT", BOXED.alignment(HorizontalAlignment.RIGHT).dataFormat(CURRENCY_FORMAT))
+            .define("VENDORTOTAL", BOXED.bold())
+            .define("DATETOTAL", BOXED.bold())
+            .define("AMOUNTTOTAL", BOXED.alignment(HorizontalAlignment.RIGHT).dataFormat(CURRENCY_FORMAT).bold())
+            .define("GRANDTOTAL", BOXED.alignment(HorizontalAlignment.CENTER).bold().italic());
+
     private final HashMap<String, CellStyle> styles;
-    private final ArrayList<String> allVendors;
+    /**
+     * Id of every vendor of every week written so far, numbered in the order they were first seen. Vendor totals are
+     * written in the iteration order of this map, which is the order a map of the same vendors put in the same order
+     * iterates in.
+     */
+    private final HashMap<String, Integer> vendorIds;
 
     public Formatter(XSSFWorkbook wb) {
         styles = new HashMap<>();
-        allVendors = new ArrayList<>();
+        vendorIds = new HashMap<>();
         loadStyles(wb);
     }
 
@@ -26,7 +51,7 @@ public class Formatter {
         Cell cell = row.createCell(cellNum);
         cell.setCellValue(header);
         cell.setCellStyle(styles.get("TITLE"));
-        sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum, cellNum + 2));
+        sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum, cellNum + 2));
         row = sheet.createRow(rowNum++);
         cell = row.createCell(cellNum++);
         cell.setCellValue("Client");
@@ -43,42 +68,64 @@ public class Formatter {
         rowNum++;
         cellNum = 0;
 
-        // write each address to the sheet
-        // use arraylist to keep order created by stream
-        ArrayList<ArrayList<Container>> addresses = new ArrayList<>();
-        for (Container c : containers) {
-            // sort containers by address
-            ArrayList<Container> addressRef = null;
-            for (ArrayList<Container> address : addresses) {
-                if (address.get(0).address().equals(c.address())) addressRef = address;
+        // group the containers by address in one pass, addresses in the order they first appear. sorted
+        // containers are already grouped, otherwise they are moved into place keeping their order.
+        HashMap<String, Integer> addressIds = new HashMap<>();
+        int[] addressOf = new int[containers.length];
+        int[] vendorOf = new int[containers.length];
+        int[] addressCounts = new int[containers.length + 1];
+        boolean grouped = true;
+        for (int i = 0; i < containers.length; i++) {
+            Container c = containers[i];
+            Integer addressId = addressIds.get(c.address());
+            if (addressId == null) {
+                addressId = addressIds.size();
+                addressIds.put(c.address(), addressId);
+            } else if (addressId != addressOf[i - 1]) {
+                grouped = false;
             }
-            if (addressRef == null) {
-                addressRef = new ArrayList<>();
-                addresses.add(addressRef);
-            }
-            addressRef.add(c);
+            addressOf[i] = addressId;
+            addressCounts[addressId + 1]++;
 
             // keep track of all vendors for later totals
-            if (!allVendors.contains(c.vendor())) allVendors.add(c.vendor());
+            Integer vendorId = vendorIds.get(c.vendor());
+            if (vendorId == null) {
+                vendorId = vendorIds.size();
+                vendorIds.put(c.vendor(), vendorId);
+            }
+            vendorOf[i] = vendorId;
         }
-
-        // initialize week vendor totals
-        HashMap<String, Double> vendorTotals = new HashMap<>();
-        for (String vendor : allVendors) {
-            vendorTotals.put(vendor, 0.0);
+        int addresses = addressIds.size();
+        int[] addressStarts = new int[addresses + 1];
+        for (int address = 0; address < addresses; address++) {
+            addressStarts[address + 1] = addressStarts[address] + addressCounts[address + 1];
         }
-
-        for (ArrayList<Container> address : addresses) {
-            ArrayList<Object> ret = writeAddress(sheet, address, address.get(0).address(), rowNum, cellNum);
-            rowNum = (int) ret.get(0);
-            cellNum = (int) ret.get(1);
-            HashMap<String, Double> addressVendorTotals = (HashMap<String, Double>) ret.get(2);
-            // add addressVendorTotals to weekTotal
-            for (String vendor : addressVendorTotals.keySet()) {
-                Double newTot = vendorTotals.get(vendor) + addressVendorTotals.get(vendor);
-                vendorTotals.put(vendor, newTot);
+        if (!grouped) {
+            Container[] byAddress = new Container[containers.length];
+            int[] vendorsByAddress = new int[containers.length];
+            int[] next = Arrays.copyOf(addressStarts, addresses);
+            for (int i = 0; i < containers.length; i++) {
+                int to = next[addressOf[i]]++;
+                byAddress[to] = containers[i];
+                vendorsByAddress[to] = vendorOf[i];
             }
+            containers = byAddress;
+            vendorOf = vendorsByAddress;
+        }
 
+        // write each address to the sheet, adding its vendor totals to the week.
+        double[] vendorTotals = new double[vendorIds.size()];
+        double[] addressVendorTotals = new double[vendorIds.size()];
+        for (int address = 0; address < addresses; address++) {
+            int from = addressStarts[address];
+            int to = addressStarts[address + 1];
+            rowNum = writeAddress(sheet, containers, vendorOf, from, to, addressVendorTotals, rowNum);
+            // cleared once added, so that a vendor seen again adds nothing and the next address starts from zero.
+            for (int i = from; i < to; i++) {
+                int vendor = vendorOf[i];
+                vendorTotals[vendor] += addressVendorTotals[vendor];
+                addressVendorTotals[vendor] = 0.0;
+            }
         }
 
         // write vendor and week totals
@@ -89,25 +136,27 @@ public class Formatter {
         row.createCell(cellNum++).setCellStyle(styles.get("VENDORHEADER"));
         row.createCell(cellNum++).setCellStyle(styles.get("VENDORHEADER"));
         row.createCell(cellNum++).setCellStyle(styles.get("VENDORHEADER"));
-        sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 4, cellNum - 1));
+        sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 4, cellNum - 1));
         cellNum = 0;
-        Double tot = 0.0;
-        for (String vendor : vendorTotals.keySet()) {
-            if (vendorTotals.get(vendor) == 0.0) continue;
+        double tot = 0.0;
+        for (Map.Entry<String, Integer> entry : vendorIds.entrySet()) {
+            String vendor = entry.getKey();
+            double vendorTotal = vendorTotals[entry.getValue()];
+            if (vendorTotal == 0.0) continue;
             row = sheet.createRow(rowNum++);
             cell = row.createCell(cellNum++);
             cell.setCellValue(vendor);
             cell.setCellStyle(styles.get("VENDOR"));
             cell = row.createCell(cellNum++);
             cell.setCellStyle(styles.get("VENDOR"));
-            sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum));
+            sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum));
             cell = row.createCell(cellNum++);
             cell.setCellStyle(styles.get("VENDOR"));
             cell = row.createCell(cellNum++);
             cell.setCellStyle(styles.get("VENDOR"));
-            cell.setCellValue(vendorTotals.get(vendor));
+            cell.setCellValue(vendorTotal);
             cell.setCellStyle(styles.get("AMOUNT"));
-            tot += vendorTotals.get(vendor);
+            tot += vendorTotal;
             cellNum = 0;
         }
         row = sheet.createRow(rowNum++);
@@ -116,7 +165,7 @@ public class Formatter {
         cell.setCellStyle(styles.get("GRANDTOTAL"));
         cell = row.createCell(cellNum++);
         cell.setCellStyle(styles.get("GRANDTOTAL"));
-        sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum));
+        sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum));
         cell = row.createCell(cellNum++);
         cell.setCellStyle(styles.get("AMOUNTTOTAL"));
         cell = row.createCell(cellNum++);
@@ -124,214 +173,205 @@ public class Formatter {
         cell.setCellStyle(styles.get("AMOUNTTOTAL"));
         cellNum = 0;
 
-        // auto size columns because sheet is not meant to be printed
+        // size columns to fit because sheet is not meant to be printed
         // and numbers can be quite large / weird
-        for (int i = 0; i <= 5; i++) {
-            sheet.autoSizeColumn(i);
+        ColumnWidthEstimator widths = new ColumnWidthEstimator();
+        for (CellRangeAddress region : sheet.getMergedRegions()) {
+            widths.exclude(region);
         }
+        for (Row sized : sheet) {
+            widths.measure(sized);
+        }
+        widths.apply(sheet, 5);
 
     }
 
-    /*
-        returns: {rowNum, cellNum, addressTotal}
+    /**
+     * Writes the containers of one address, from and to indices of containers of the same address, followed by the
+     * address total.
+     * @param vendorOf The vendor id of each container.
+     * @param addressVendors Receives the total of each vendor of the address, added to what it holds.
+     * @return The row after the address.
      */
-    private ArrayList<Object> writeAddress(Sheet sheet, ArrayList<Container> containers, String address, int rowNum, int cellNum) {
+    private int writeAddress(Sheet sheet, Container[] containers, int[] vendorOf, int from, int to,
+                             double[] addressVendors, int rowNum) {
         double total = 0;
 
-        // addressVendors for keeping track of vendor totals and such
-        HashMap<String, Double> addressVendors = new HashMap<>();
-
-        for (String vendor : allVendors) {
-            addressVendors.put(vendor, 0.0);
-        }
-
         // write containers
         Row row;
         Cell cell;
-        cellNum = 0;
-        String currVendor = null;
-        for (int i = 0; i < containers.size(); i++) {
-            if (i == containers.size() - 1) {
-                if (currVendor == null || !currVendor.equals(containers.get(i).vendor())) {
+        int cellNum = 0;
+        int currVendor = -1;
+        for (int i = from; i < to; i++) {
+            Container c = containers[i];
+            if (i == to - 1) {
+                if (currVendor == -1 || currVendor != vendorOf[i]) {
                     // this container is the first and is the only of a vendor
                     // write container as vendor total
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).address());
+                    cell.setCellValue(c.address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDORTOTAL"));
                     cell = row.createCell(cellNum++);
-                    LocalDate date = containers.get(i).date();
+                    LocalDate date = c.date();
                     cell.setCellValue(date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear());
                     cell.setCellStyle(styles.get("DATE"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDORTOTAL"));
-                    cell.setCellValue(containers.get(i).amount());
+                    cell.setCellValue(c.amount());
                     cell.setCellStyle(styles.get("AMOUNTTOTAL"));
-                    Double newTot = containers.get(i).amount() + addressVendors.get(containers.get(i).vendor());
-                    addressVendors.put(containers.get(i).vendor(), newTot);
-                    currVendor = containers.get(i).vendor();
+                    addressVendors[vendorOf[i]] += c.amount();
+                    currVendor = vendorOf[i];
                 } else {
                     // write container
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).address());
+                    cell.setCellValue(c.address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDOR"));
                     cell = row.createCell(cellNum++);
-                    LocalDate date = containers.get(i).date();
+                    LocalDate date = c.date();
                     cell.setCellValue(date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear());
                     cell.setCellStyle(styles.get("DATE"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).amount());
+                    cell.setCellValue(c.amount());
                     cell.setCellStyle(styles.get("AMOUNT"));
-                    Double newTot = containers.get(i).amount() + addressVendors.get(containers.get(i).vendor());
-                    addressVendors.put(containers.get(i).vendor(), newTot);
+                    addressVendors[vendorOf[i]] += c.amount();
                     cellNum = 0;
 
                     // write vendor total
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).address());
+                    cell.setCellValue(c.address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor() + " Total");
+                    cell.setCellValue(c.vendor() + " Total");
                     cell.setCellStyle(styles.get("VENDORTOTAL"));
                     cell = row.createCell(cellNum++);
-                    sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum - 1));
+                    sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum - 1));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(addressVendors.get(containers.get(i).vendor()));
+                    cell.setCellValue(addressVendors[vendorOf[i]]);
                     cell.setCellStyle(styles.get("AMOUNTTOTAL"));
                 }
-            } else if (!containers.get(i).vendor().equals(containers.get(i + 1).vendor())) {
-                if (currVendor == null) {
+            } else if (vendorOf[i] != vendorOf[i + 1]) {
+                if (currVendor == -1) {
                     // this container is the first and only of a vendor
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).address());
+                    cell.setCellValue(c.address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDORTOTAL"));
                     cell = row.createCell(cellNum++);
-                    LocalDate date = containers.get(i).date();
+                    LocalDate date = c.date();
                     cell.setCellValue(date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear());
                     cell.setCellStyle(styles.get("DATE"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDORTOTAL"));
-                    cell.setCellValue(containers.get(i).amount());
+                    cell.setCellValue(c.amount());
                     cell.setCellStyle(styles.get("AMOUNTTOTAL"));
-                    Double newTot = containers.get(i).amount() + addressVendors.get(containers.get(i).vendor());
-                    addressVendors.put(containers.get(i).vendor(), newTot);
-                    currVendor = containers.get(i).vendor();
-                } else if (!currVendor.equals(containers.get(i).vendor())) {
+                    addressVendors[vendorOf[i]] += c.amount();
+                    currVendor = vendorOf[i];
+                } else if (currVendor != vendorOf[i]) {
                     // this is the first of a new vendor
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).address());
+                    cell.setCellValue(c.address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDOR"));
                     cell = row.createCell(cellNum++);
-                    LocalDate date = containers.get(i).date();
+                    LocalDate date = c.date();
                     cell.setCellValue(date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear());
                     cell.setCellStyle(styles.get("DATE"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).amount());
+                    cell.setCellValue(c.amount());
                     cell.setCellStyle(styles.get("AMOUNT"));
-                    Double newTot = containers.get(i).amount() + addressVendors.get(containers.get(i).vendor());
-                    addressVendors.put(containers.get(i).vendor(), newTot);
-                    currVendor = containers.get(i).vendor();
+                    addressVendors[vendorOf[i]] += c.amount();
+                    currVendor = vendorOf[i];
                 } else {
                     // write container
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).address());
+                    cell.setCellValue(c.address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).vendor());
+                    cell.setCellValue(c.vendor());
                     cell.setCellStyle(styles.get("VENDOR"));
                     cell = row.createCell(cellNum++);
-                    LocalDate date = containers.get(i).date();
+                    LocalDate date = c.date();
                     cell.setCellValue(date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear());
                     cell.setCellStyle(styles.get("DATE"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i).amount());
+                    cell.setCellValue(c.amount());
                     cell.setCellStyle(styles.get("AMOUNT"));
-                    Double newTot = containers.get(i).amount() + addressVendors.get(containers.get(i).vendor());
-                    addressVendors.put(containers.get(i).vendor(), newTot);
+                    addressVendors[vendorOf[i]] += c.amount();
                     cellNum = 0;
 
                     // write previous vendor total
                     row = sheet.createRow(rowNum++);
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i - 1).address());
+                    cell.setCellValue(containers[i - 1].address());
                     cell.setCellStyle(styles.get("CLIENT"));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(containers.get(i - 1).vendor() + " Total");
+                    cell.setCellValue(containers[i - 1].vendor() + " Total");
                     cell.setCellStyle(styles.get("VENDORTOTAL"));
                     cell = row.createCell(cellNum++);
-                    sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum - 1));
+                    sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum - 1));
                     cell = row.createCell(cellNum++);
-                    cell.setCellValue(addressVendors.get(containers.get(i - 1).vendor()));
+                    cell.setCellValue(addressVendors[vendorOf[i - 1]]);
                     cell.setCellStyle(styles.get("AMOUNTTOTAL"));
-                    currVendor = containers.get(i).vendor();
+                    currVendor = vendorOf[i];
                 }
             } else {
                 // write container
                 row = sheet.createRow(rowNum++);
                 cell = row.createCell(cellNum++);
-                cell.setCellValue(containers.get(i).address());
+                cell.setCellValue(c.address());
                 cell.setCellStyle(styles.get("CLIENT"));
                 cell = row.createCell(cellNum++);
-                cell.setCellValue(containers.get(i).vendor());
+                cell.setCellValue(c.vendor());
                 cell.setCellStyle(styles.get("VENDOR"));
                 cell = row.createCell(cellNum++);
-                LocalDate date = containers.get(i).date();
+                LocalDate date = c.date();
                 cell.setCellValue(date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear());
                 cell.setCellStyle(styles.get("DATE"));
                 cell = row.createCell(cellNum++);
-                cell.setCellValue(containers.get(i).amount());
+                cell.setCellValue(c.amount());
                 cell.setCellStyle(styles.get("AMOUNT"));
-                Double newTot = containers.get(i).amount() + addressVendors.get(containers.get(i).vendor());
-                addressVendors.put(containers.get(i).vendor(), newTot);
-                currVendor = containers.get(i).vendor();
+                addressVendors[vendorOf[i]] += c.amount();
+                currVendor = vendorOf[i];
             }
-            total += containers.get(i).amount();
+            total += c.amount();
             cellNum = 0;
         }
 
         // write address total
         row = sheet.createRow(rowNum++);
         cell = row.createCell(cellNum++);
-        cell.setCellValue(containers.get(0).address());
+        cell.setCellValue(containers[from].address());
         cell.setCellStyle(styles.get("CLIENT"));
         cell = row.createCell(cellNum++);
         cell.setCellStyle(styles.get("GRANDTOTAL"));
         cell.setCellValue("Grand Total");
         cell = row.createCell(cellNum++);
-        sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum - 1));
+        sheet.addMergedRegionUnsafe(new CellRangeAddress(rowNum - 1, rowNum - 1, cellNum - 2, cellNum - 1));
         cell.setCellStyle(styles.get("GRANDTOTAL"));
         cell = row.createCell(cellNum++);
         cell.setCellValue(total);
         cell.setCellStyle(styles.get("AMOUNTTOTAL"));
         sheet.createRow(rowNum++);
-        cellNum = 0;
-
-        // return variables
-        ArrayList<Object> ret = new ArrayList<Object>();
-        ret.add(rowNum);
-        ret.add(cellNum);
-        ret.add(addressVendors);
 
-        return ret;
+        return rowNum;
     }
 
     /**
@@ -339,188 +379,6 @@ public class Formatter {
      * @since 1.1
      */
     public void loadStyles(XSSFWorkbook wb) {
-        styles.put("TITLE", createTitleFont(wb));
-        styles.put("HEADER", createHeaderFont(wb));
-        styles.put("VENDORHEADER", createVendorHeaderStyle(wb));
-        styles.put("CLIENT", createClientFont(wb));
-        styles.put("VENDOR", createVendorFont(wb));
-        styles.put("DATE", createDateFont(wb));
-        styles.put("AMOUNT", createAmountFont(wb));
-        styles.put("VENDORTOTAL", createVendorTotalFont(wb));
-        styles.put("DATETOTAL", createDateTotalFont(wb));
-        styles.put("AMOUNTTOTAL", createAmountTotalFont(wb));
-        styles.put("GRANDTOTAL", createGrandTotalFont(wb));
-    }
-
-
-    private CellStyle createTitleFont(Workbook wb) {
-        // set up the style
-        CellStyle STYLE = wb.createCellStyle();
-        // modify the style
-        STYLE.setAlignment(HorizontalAlignment.CENTER);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        return STYLE;
+        styles.putAll(STYLES.createStyles(wb));
     }
-
-    private CellStyle createHeaderFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        // modify the font
-        FONT.setBold(true);
-        return STYLE;
-    }
-
-    private CellStyle createVendorHeaderStyle(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        STYLE.setAlignment(HorizontalAlignment.CENTER);
-        // modify the font
-        FONT.setBold(true);
-        return STYLE;
-    }
-
-    private CellStyle createClientFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        // modify the font
-        FONT.setBold(true);
-        return STYLE;
-    }
-
-    private CellStyle createVendorFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        return STYLE;
-    }
-
-    private CellStyle createDateFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        return STYLE;
-    }
-
-    private CellStyle createVendorTotalFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        // modify the font
-        FONT.setBold(true);
-        return STYLE;
-    }
-
-    private CellStyle createDateTotalFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        // modify the font
-        FONT.setBold(true);
-        return STYLE;
-    }
-
-    private CellStyle createAmountFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        STYLE.setAlignment(HorizontalAlignment.RIGHT);
-        STYLE.setDataFormat((short) 8); // currency format
-        return STYLE;
-    }
-
-    private CellStyle createAmountTotalFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        STYLE.setAlignment(HorizontalAlignment.RIGHT);
-        STYLE.setDataFormat((short) 8); // currency format
-        // modify the font
-        FONT.setBold(true);
-        return STYLE;
-    }
-
-    private CellStyle createGrandTotalFont(Workbook wb) {
-        // set up the style and font and link together
-        CellStyle STYLE = wb.createCellStyle();
-        Font FONT = wb.createFont();
-        STYLE.setFont(FONT);
-        // modify the style
-        STYLE.setBorderTop(BorderStyle.THIN);
-        STYLE.setBorderRight(BorderStyle.THIN);
-        STYLE.setBorderBottom(BorderStyle.THIN);
-        STYLE.setBorderLeft(BorderStyle.THIN);
-        STYLE.setVerticalAlignment(VerticalAlignment.CENTER);
-        STYLE.setAlignment(HorizontalAlignment.CENTER);
-        // modify the font
-        FONT.setBold(true);
-        FONT.setItalic(true);
-        return STYLE;
-    }
-
 }
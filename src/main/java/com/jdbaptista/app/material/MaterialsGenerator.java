@@ -1,5 +1,8 @@
 package com.jdbaptista.app.material;
 
+import com.jdbaptista.app.report.Progress;
+import com.jdbaptista.app.report.ProgressListener;
+import com.jdbaptista.app.report.RunMetrics;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -10,12 +13,31 @@ import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MaterialsGenerator {
+    /**
+     * Run report kept beside the output file with {@link MaterialsGenerator#setRunReport(boolean)}.
+     */
+    public static final String RUN_REPORT = "materials-runs.jsonl";
+
     final private String inFolder;
     final private File[] inFiles;
     final private String outFile;
     public String log;
+    private boolean successful;
+    private Progress readProgress;
+    private Progress writeProgress;
+    /**
+     * Set by {@link MaterialsGenerator#cancel()} from another thread.
+     */
+    private volatile boolean cancelled;
+    private boolean runReport;
+    private int parallelism = 1;
+    private RunMetrics metrics;
     private Formatter formatter;
     private HashMap<Integer, XSSFWorkbook> workbooks;
 
@@ -23,94 +45,251 @@ public class MaterialsGenerator {
         this.inFolder = inFolder;
         File folder = new File(inFolder);
         inFiles = folder.listFiles();
+        if (inFiles != null) {
+            // read and logged in name order on every system.
+            Arrays.sort(inFiles);
+        }
         this.outFile = outFile;
         this.workbooks = new HashMap<>();
         this.log = "";
+        setProgressListener(null);
+    }
+
+    /**
+     * Sets the listener told how many receipt files were read and weeks written as the generator runs, called from
+     * the thread running the generator or, with {@link MaterialsGenerator#setParallelism(int)} above 1, from any of the
+     * threads reading receipts. Defaults to none.
+     */
+    public void setProgressListener(ProgressListener listener) {
+        readProgress = new Progress(listener, "Reading receipts");
+        writeProgress = new Progress(listener, "Writing weeks");
+    }
+
+    /**
+     * Appends how long each stage of every run took and counts of what it did to {@link MaterialsGenerator#RUN_REPORT}
+     * in the folder of the output file, one JSON object per run. Defaults to false.
+     */
+    public void setRunReport(boolean runReport) {
+        this.runReport = runReport;
+    }
+
+    /**
+     * Reads that many receipt files at once. Whatever the number, files are logged and added to the report in name
+     * order. Defaults to 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism + ".");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Stops a run started on another thread at the next receipt file or week, without writing the report.
+     */
+    public void cancel() {
+        cancelled = true;
     }
 
     public String run() {
+        metrics = new RunMetrics("materials");
+        metrics.start();
+        try {
+            runReports();
+        } finally {
+            metrics.stop();
+        }
+        if (runReport) {
+            try {
+                metrics.save(new File(new File(outFile).getAbsoluteFile().getParentFile(), RUN_REPORT), successful);
+            } catch (IOException e) {
+                // the report itself is unaffected.
+                e.printStackTrace();
+            }
+        }
+        return log;
+    }
+
+    private void runReports() {
         try {
+            RunMetrics.Timer timer = metrics.time("read");
             XSSFWorkbook wb = new XSSFWorkbook();
             formatter = new Formatter(wb);
-            OutputStream fileOut = new FileOutputStream(outFile + ".xlsx");
             ArrayList<LocalDate> weeks = new ArrayList<>();
             HashMap<LocalDate, ArrayList<Container>> containersLookup = new HashMap<>();
-            for (int i = 0; i < inFiles.length; i++) {
-                ArrayList<Container> containers = parseData(inFiles[i]);
+            readProgress.start(inFiles.length);
+            for (ReceiptFile receipts : parseFiles()) {
+                log += receipts.log;
+                if (receipts.failure != null) throw receipts.failure;
+                ArrayList<Container> containers = receipts.containers;
                 if (containers.size() == 0) continue;
-                String[] partials = inFiles[i].getName().split(" ");
+                String[] partials = receipts.file.getName().split(" ");
                 String[] ending = partials[1].split("\\.")[0].split("-");
                 DateTimeFormatter df = DateTimeFormatter.ofPattern("M-d-y");
                 LocalDate weekDate = LocalDate.parse(ending[0] + "-" + ending[1] + "-" + ending[2], df);
                 weeks.add(weekDate);
                 containersLookup.put(weekDate, containers);
             }
+            readProgress.finish();
+            timer.stop();
             Collections.sort(weeks, Collections.reverseOrder());
 
+            timer = metrics.time("format");
+            writeProgress.start(weeks.size());
             for (LocalDate week : weeks) {
+                if (cancelled) break;
                 String header = week.getMonthValue() + "_" + week.getDayOfMonth() + "_" + week.getYear();
                 Sheet sheet = wb.createSheet(header);
                 writeWeek(sheet, containersLookup.get(week), "Week Ending " + header);
+                writeProgress.step();
+            }
+            if (cancelled) {
+                // the report written last time is left as it was.
+                wb.close();
+                log += "Material reports were cancelled.\n";
+                return;
             }
+            writeProgress.finish();
+            timer.stop();
+            metrics.add("sheetsWritten", wb.getNumberOfSheets());
+            for (Sheet sheet : wb) {
+                for (Row row : sheet) {
+                    metrics.add("cellsWritten", row.getPhysicalNumberOfCells());
+                }
+            }
+
+            // opened last, so that a report left open elsewhere is only found once the data is ready.
+            timer = metrics.time("write");
+            OutputStream fileOut = new FileOutputStream(outFile + ".xlsx");
             wb.write(fileOut);
             fileOut.close();
             wb.close();
+            timer.stop();
+            metrics.add("bytesWritten", new File(outFile + ".xlsx").length());
 
         } catch (Exception e) {
             e.printStackTrace();
             log += "Failed to write material reports.\nInput file may be open.\n";
-            return log;
+            return;
         }
         log += "Generated material reports successfully.\n";
-        return log;
+        successful = true;
+    }
+
+    /**
+     * @return True if the last run wrote the report.
+     */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    /**
+     * Helper function of {@link MaterialsGenerator#runReports()}. Parses the receipt files, on
+     * {@link MaterialsGenerator#parallelism} threads if above 1.
+     * @return The parsed files in name order, up to and including the first that failed or every file read before
+     * the run was cancelled, so that the log reads the same however many threads parsed them.
+     * @throws InterruptedException Interrupted while waiting for the files.
+     */
+    private ArrayList<ReceiptFile> parseFiles() throws InterruptedException {
+        ArrayList<ReceiptFile> ret = new ArrayList<>();
+        if (parallelism > 1) {
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                ArrayList<Future<ReceiptFile>> files = new ArrayList<>();
+                for (File inFile : inFiles) {
+                    files.add(executor.submit(() -> cancelled ? null : parseFile(inFile)));
+                }
+                for (Future<ReceiptFile> file : files) {
+                    ReceiptFile receipts = file.get();
+                    if (receipts == null) break;
+                    ret.add(receipts);
+                    if (receipts.failure != null) break;
+                }
+            } catch (ExecutionException e) {
+                // parseFile catches every exception.
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            for (File inFile : inFiles) {
+                if (cancelled) break;
+                ReceiptFile receipts = parseFile(inFile);
+                ret.add(receipts);
+                if (receipts.failure != null) break;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Helper function of {@link MaterialsGenerator#parseFiles()}. Safe to call from several threads at once.
+     * @return The receipts of one file with its own log, or the failure that stopped it from being read.
+     */
+    private ReceiptFile parseFile(File inFile) {
+        ReceiptFile ret = new ReceiptFile(inFile);
+        try {
+            parseData(ret);
+        } catch (Exception e) {
+            ret.failure = e;
+        }
+        readProgress.step();
+        return ret;
     }
 
-    private ArrayList<Container> parseData(File inFile) throws IOException {
+    private void parseData(ReceiptFile receipts) throws IOException {
         String addressCell;
         String vendorCell;
         LocalDate dateCell;
         DateTimeFormatter df = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
         double amountCell;
-        ArrayList<Container> ret = new ArrayList<>();
+        File inFile = receipts.file;
+        StringBuilder log = receipts.log;
 
-        // try to open the input file.
+        // try to open the input file, read only so that closing it leaves the file as it was.
         Workbook wb;
         Sheet sheet = null;
         try {
-            if (inFile.isHidden()) return ret;
-            wb = WorkbookFactory.create(inFile);
+            if (inFile.isHidden()) return;
+            wb = WorkbookFactory.create(inFile, null, true);
             sheet = wb.getSheetAt(0);
         } catch (IOException e) {
-            log += "Something went wrong reading the input.\n";
+            log.append("Something went wrong reading the input.\n");
             throw e;
         }
 
         // try to read the data
-        if (sheet == null) {
-            log += "Input file contains no data.\n";
-            throw new IOException("sheet is null in file " + inFile);
-        }
-        for (Row row : sheet) {
-            // get the row
-            Iterator<Cell> cellIterator = row.cellIterator();
-            try {
-                addressCell = cellIterator.next().toString().strip();
-                vendorCell = cellIterator.next().toString().strip();
-                dateCell = LocalDate.parse(cellIterator.next().toString(), df);
-                amountCell = Double.parseDouble(cellIterator.next().toString());
-            } catch (Exception e) {
-                log += "Something went wrong reading the receipts at row " + (row.getRowNum() + 1) + ". Skipped this row.\n";
-                e.printStackTrace();
-                continue;
+        try (wb) {
+            if (sheet == null) {
+                log.append("Input file contains no data.\n");
+                throw new IOException("sheet is null in file " + inFile);
             }
-            if (addressCell == null || vendorCell == null) {
-                log += "Something went wrong reading the receipts at row " + (row.getRowNum() + 1) + ". Skipped this row.\n";
-                continue;
+            for (Row row : sheet) {
+                // get the row
+                metrics.add("rowsRead", 1);
+                Iterator<Cell> cellIterator = row.cellIterator();
+                try {
+                    addressCell = cellIterator.next().toString().strip();
+                    vendorCell = cellIterator.next().toString().strip();
+                    dateCell = LocalDate.parse(cellIterator.next().toString(), df);
+                    amountCell = Double.parseDouble(cellIterator.next().toString());
+                } catch (Exception e) {
+                    log.append("Something went wrong reading the receipts at row ").append(row.getRowNum() + 1)
+                            .append(". Skipped this row.\n");
+                    metrics.add("rowsSkipped", 1);
+                    e.printStackTrace();
+                    continue;
+                }
+                if (addressCell == null || vendorCell == null) {
+                    log.append("Something went wrong reading the receipts at row ").append(row.getRowNum() + 1)
+                            .append(". Skipped this row.\n");
+                    metrics.add("rowsSkipped", 1);
+                    continue;
+                }
+                // input the row
+                receipts.containers.add(new Container(addressCell, vendorCell, dateCell, amountCell));
+                metrics.add("receipts", 1);
             }
-            // input the row
-            ret.add(new Container(addressCell, vendorCell, dateCell, amountCell));
         }
-        return ret;
     }
 
     private void writeWeek(Sheet sheet, ArrayList<Container> containers, String header) throws IOException {
@@ -124,4 +303,23 @@ public class MaterialsGenerator {
                                         .toArray(Container[]::new);
         formatter.writeWeek(sheet, sorted, header);
     }
+
+    /**
+     * The receipts of one file, parsed by {@link MaterialsGenerator#parseFile(File)}.
+     */
+    private static class ReceiptFile {
+        final private File file;
+        final private ArrayList<Container> containers;
+        /**
+         * Log lines of this file, added to {@link MaterialsGenerator#log} in file order.
+         */
+        final private StringBuilder log;
+        private Exception failure;
+
+        private ReceiptFile(File file) {
+            this.file = file;
+            containers = new ArrayList<>();
+            log = new StringBuilder();
+        }
+    }
 }
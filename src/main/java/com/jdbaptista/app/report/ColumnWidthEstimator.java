@@ -0,0 +1,148 @@
+package com.jdbaptista.app.report;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * Sizes columns to fit their contents without {@link Sheet#autoSizeColumn(int)}, which lays out every cell of the
+ * column with AWT font metrics. Rows are handed to {@link ColumnWidthEstimator#measure(Row)} as they are finished,
+ * the widest text of each column is estimated from a table of character widths, and
+ * {@link ColumnWidthEstimator#apply(Sheet, int)} sets every width at the end. Like autoSizeColumn, cells in merged
+ * regions do not size their column, see {@link ColumnWidthEstimator#exclude(CellRangeAddress)}.
+ */
+public class ColumnWidthEstimator {
+    /**
+     * Advance of each printable ASCII character, from ' ' to '~', in widths of '0' in the default font.
+     */
+    private static final double[] ADVANCE = {
+            0.50, 0.63, 0.72, 1.32, 1.00, 1.49, 1.23, 0.43, 0.61, 0.61, 0.79, 1.32, 0.50, 0.57, 0.50, 0.53,
+            1.00, 1.00, 1.00, 1.00, 1.00, 1.00, 1.00, 1.00, 1.00, 1.00, 0.53, 0.53, 1.32, 1.32, 1.32, 0.83,
+            1.57, 1.08, 1.08, 1.10, 1.21, 0.99, 0.90, 1.22, 1.18, 0.46, 0.46, 1.03, 0.88, 1.36, 1.18, 1.24,
+            0.95, 1.24, 1.09, 1.00, 0.96, 1.15, 1.08, 1.55, 1.08, 0.96, 1.08, 0.61, 0.53, 0.61, 1.32, 0.79,
+            0.79, 0.96, 1.00, 0.86, 1.00, 0.97, 0.55, 1.00, 1.00, 0.44, 0.44, 0.91, 0.44, 1.53, 1.00, 0.96,
+            1.00, 1.00, 0.65, 0.82, 0.62, 1.00, 0.93, 1.29, 0.93, 0.93, 0.83, 1.00, 0.53, 1.00, 1.32
+    };
+    private static final double[] BOLD_ADVANCE = {
+            0.55, 0.72, 0.82, 1.32, 1.09, 1.57, 1.37, 0.48, 0.72, 0.72, 0.82, 1.32, 0.60, 0.65, 0.60, 0.57,
+            1.09, 1.09, 1.09, 1.09, 1.09, 1.09, 1.09, 1.09, 1.09, 1.09, 0.63, 0.63, 1.32, 1.32, 1.32, 0.91,
+            1.57, 1.22, 1.20, 1.15, 1.30, 1.07, 1.07, 1.29, 1.32, 0.58, 0.58, 1.22, 1.00, 1.56, 1.32, 1.34,
+            1.15, 1.34, 1.21, 1.13, 1.07, 1.28, 1.22, 1.73, 1.21, 1.14, 1.14, 0.72, 0.57, 0.72, 1.32, 0.79,
+            0.79, 1.06, 1.13, 0.93, 1.13, 1.07, 0.68, 1.13, 1.12, 0.54, 0.54, 1.05, 0.54, 1.64, 1.12, 1.08,
+            1.13, 1.13, 0.78, 0.94, 0.75, 1.12, 1.02, 1.45, 1.01, 1.02, 0.91, 1.12, 0.57, 1.12, 1.32
+    };
+    /**
+     * Column width units per width of '0', and the margin added to every column, matching what autoSizeColumn gives
+     * for the default 11 point font.
+     */
+    private static final double SCALE = 1.166;
+    private static final double PADDING = 1.05;
+    private static final double BOLD_PADDING = 1.2;
+    private static final short DEFAULT_FONT_HEIGHT = 11;
+    private static final int MAX_WIDTH = 255;
+
+    /**
+     * Widest estimate of each column in characters, 0 where nothing was measured.
+     */
+    private double[] widths;
+    /**
+     * Cells of excluded regions, packed as row << 16 | column.
+     */
+    final private HashSet<Long> excluded;
+    final private DataFormatter formatter;
+
+    public ColumnWidthEstimator() {
+        widths = new double[16];
+        excluded = new HashSet<>();
+        formatter = new DataFormatter();
+    }
+
+    /**
+     * Stops the cells of a merged region from sizing their columns. Must be called before the rows of the region
+     * are measured.
+     */
+    public void exclude(CellRangeAddress region) {
+        for (int row = region.getFirstRow(); row <= region.getLastRow(); row++) {
+            for (int column = region.getFirstColumn(); column <= region.getLastColumn(); column++) {
+                excluded.add(key(row, column));
+            }
+        }
+    }
+
+    /**
+     * Records the estimated width of every cell of a finished row.
+     */
+    public void measure(Row row) {
+        Workbook wb = row.getSheet().getWorkbook();
+        for (Cell cell : row) {
+            String text = render(cell);
+            if (text.isEmpty() || (!excluded.isEmpty() && excluded.contains(key(row.getRowNum(), cell.getColumnIndex())))) {
+                continue;
+            }
+            double width = estimate(text, wb.getFontAt(cell.getCellStyle().getFontIndex()));
+            int column = cell.getColumnIndex();
+            if (column >= widths.length) {
+                widths = Arrays.copyOf(widths, Math.max(column + 1, widths.length * 2));
+            }
+            widths[column] = Math.max(widths[column], width);
+        }
+    }
+
+    /**
+     * Sets the width of every measured column up to and including lastColumn. Columns without any measured cell keep
+     * their width.
+     */
+    public void apply(Sheet sheet, int lastColumn) {
+        for (int column = 0; column <= lastColumn && column < widths.length; column++) {
+            if (widths[column] > 0) {
+                sheet.setColumnWidth(column, (int) Math.round(Math.min(widths[column], MAX_WIDTH) * 256));
+            }
+        }
+    }
+
+    /**
+     * @return The estimated width of the text in characters of the default font.
+     */
+    static double estimate(String text, Font font) {
+        double[] advance = font.getBold() ? BOLD_ADVANCE : ADVANCE;
+        double total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            total += (c >= ' ' && c <= '~') ? advance[c - ' '] : advance['0' - ' '];
+        }
+        double scale = (double) font.getFontHeightInPoints() / DEFAULT_FONT_HEIGHT;
+        return total * scale * SCALE + (font.getBold() ? BOLD_PADDING : PADDING);
+    }
+
+    /**
+     * @return The text of the cell as displayed.
+     */
+    private String render(Cell cell) {
+        CellType type = cell.getCellType();
+        if (type == CellType.STRING) {
+            return cell.getStringCellValue();
+        } else if (type == CellType.NUMERIC) {
+            double value = cell.getNumericCellValue();
+            short format = cell.getCellStyle().getDataFormat();
+            if (format == 0) {
+                return NumberToTextConverter.toText(value);
+            } else if (format >= 5 && format <= 8) {
+                // built in currency formats, whole dollars for 5 and 6, cents for 7 and 8.
+                String amount = String.format(Locale.US, format <= 6 ? "$%,.0f" : "$%,.2f", Math.abs(value));
+                return value < 0 ? "(" + amount + ")" : amount;
+            }
+            return formatter.formatRawCellContents(value, format, cell.getCellStyle().getDataFormatString());
+        } else if (type == CellType.BOOLEAN) {
+            return cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+        }
+        return "";
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 16) | column;
+    }
+}
@@ -0,0 +1,74 @@
+package com.jdbaptista.app.report;
+
+/**
+ * Counts the units of one stage of a generator and passes the count on to a {@link ProgressListener}, at most once
+ * every {@link Progress#INTERVAL} nanoseconds and once more as the stage ends, so that counting every row costs next
+ * to nothing. Safe to step from several threads at once, and stages running at the same time each have their own.
+ */
+public class Progress {
+    public static final long INTERVAL = 100_000_000L;
+
+    final private ProgressListener listener;
+    final private String stage;
+    private long total;
+    private long done;
+    private long startTime;
+    private long lastReport;
+
+    /**
+     * @param listener Receives the progress, or null to count nothing.
+     * @param stage What the generator is doing in this stage.
+     */
+    public Progress(ProgressListener listener, String stage) {
+        this.listener = listener;
+        this.stage = stage;
+    }
+
+    /**
+     * Starts counting the stage from zero.
+     * @param total Units of the whole stage, or -1 if not known.
+     */
+    public synchronized void start(long total) {
+        if (listener == null) return;
+        this.total = total;
+        done = 0;
+        startTime = System.nanoTime();
+        lastReport = startTime;
+        listener.progress(stage, 0, total, 0);
+    }
+
+    /**
+     * Counts one unit of the stage.
+     */
+    public synchronized void step() {
+        if (listener == null) return;
+        done++;
+        long now = System.nanoTime();
+        if (now - lastReport >= INTERVAL) {
+            lastReport = now;
+            report(now);
+        }
+    }
+
+    /**
+     * Ends the stage, passing on its final count.
+     */
+    public synchronized void finish() {
+        if (listener == null) return;
+        if (total < 0) total = done;
+        report(System.nanoTime());
+    }
+
+    private void report(long now) {
+        double seconds = (now - startTime) / 1e9;
+        listener.progress(stage, done, total, seconds > 0 ? done / seconds : 0);
+    }
+
+    /**
+     * @return Seconds until a stage ends at its current rate, or -1 if that cannot be told yet.
+     */
+    public static long secondsLeft(long done, long total, double perSecond) {
+        if (total < 0 || perSecond <= 0) return -1;
+        return Math.round((total - done) / perSecond);
+    }
+}
@@ -0,0 +1,15 @@
+package com.jdbaptista.app.report;
+
+/**
+ * Receives the progress of a report generator as it runs, see {@link Progress}. Called from the threads of the
+ * generator, never from the thread that will show the progress, so a listener has to hand the numbers over itself.
+ */
+public interface ProgressListener {
+    /**
+     * @param stage What the generator is doing, for example "Reading shifts".
+     * @param done Units of the stage finished so far.
+     * @param total Units of the whole stage, or -1 if it is only known once the stage ends.
+     * @param perSecond Units finished per second since the stage started.
+     */
+    void progress(String stage, long done, long total, double perSecond);
+}
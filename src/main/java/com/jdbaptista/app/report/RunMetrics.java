@@ -0,0 +1,282 @@
+package com.jdbaptista.app.report;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects how long each stage of one generator run took and counts of what it did, to be appended to a run report
+ * with {@link RunMetrics#save(File, boolean)}. A run report holds one JSON object per line, one line per run, so that
+ * runs can be compared over time. Stages and counters can be added to from any thread.
+ * <p>
+ * Between {@link RunMetrics#start()} and {@link RunMetrics#stop()} the heap is watched through the notifications of
+ * the garbage collectors, and the run report holds the most heap left in use after any collection. Unlike the peak
+ * usage of the memory pools, that leaves out garbage not yet collected, so it follows what the run keeps alive. The
+ * heap is shared by the whole JVM, so a run that overlaps another also counts what the other keeps alive, but neither
+ * changes what the other measures.
+ */
+public class RunMetrics {
+    final private String generator;
+    private Instant started;
+    private long startTime;
+    private long stopTime;
+    /**
+     * Milliseconds of each stage, in the order they finished.
+     */
+    final private LinkedHashMap<String, Long> stages;
+    final private ConcurrentHashMap<String, LongAdder> counters;
+    final private HeapWatcher heap;
+
+    /**
+     * @param generator Names the generator in the run report.
+     */
+    public RunMetrics(String generator) {
+        this.generator = generator;
+        stages = new LinkedHashMap<>();
+        counters = new ConcurrentHashMap<>();
+        heap = new HeapWatcher();
+    }
+
+    /**
+     * Starts timing the run and watching the heap. Called once, as the run starts.
+     */
+    public synchronized void start() {
+        started = Instant.now();
+        startTime = System.nanoTime();
+        heap.start();
+    }
+
+    /**
+     * Stops timing the run and watching the heap. Called once the run is over, whether or not it succeeded.
+     */
+    public synchronized void stop() {
+        if (stopTime != 0) return;
+        stopTime = System.nanoTime();
+        heap.stop();
+    }
+
+    /**
+     * Starts timing a stage, see {@link Timer#stop()}.
+     */
+    public Timer time(String stage) {
+        return new Timer(stage);
+    }
+
+    /**
+     * @return The counter of a name, created at zero the first time. Meant to be held on to in loops.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public void add(String name, long count) {
+        counter(name).add(count);
+    }
+
+    /**
+     * @return The milliseconds recorded for a stage, or -1 if it did not finish.
+     */
+    public synchronized long getMillis(String stage) {
+        return stages.getOrDefault(stage, -1L);
+    }
+
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * @return Bytes of heap in use right after the garbage collection that left the most in use since
+     * {@link RunMetrics#start()}, or 0 if nothing was collected.
+     */
+    public long getLiveHeap() {
+        return heap.getPeak();
+    }
+
+    /**
+     * @return Garbage collections since {@link RunMetrics#start()}.
+     */
+    public long getCollections() {
+        return heap.getCollections();
+    }
+
+    private synchronized void record(String stage, long millis) {
+        stages.put(stage, millis);
+    }
+
+    /**
+     * Appends the run to a run report, creating it if needed.
+     * @param report The run report file.
+     * @param successful Whether the run generated every report.
+     * @throws IOException
+     */
+    public void save(File report, boolean successful) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(report.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(toJson(successful));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * @return The run as a single line JSON object.
+     */
+    public synchronized String toJson(boolean successful) {
+        StringBuilder ret = new StringBuilder("{");
+        ret.append("\"generator\":").append(quote(generator));
+        ret.append(",\"started\":").append(quote(String.valueOf(started)));
+        ret.append(",\"successful\":").append(successful);
+        ret.append(",\"totalMillis\":").append(((stopTime != 0 ? stopTime : System.nanoTime()) - startTime) / 1000000);
+        ret.append(",\"stageMillis\":{");
+        appendEntries(ret, stages);
+        ret.append("},\"counts\":{");
+        TreeMap<String, Long> counts = new TreeMap<>();
+        counters.forEach((name, counter) -> counts.put(name, counter.sum()));
+        appendEntries(ret, counts);
+        ret.append("},\"collections\":").append(heap.getCollections());
+        ret.append(",\"liveHeapBytes\":").append(heap.getPeak());
+        return ret.append('}').toString();
+    }
+
+    private static void appendEntries(StringBuilder json, Map<String, Long> entries) {
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append(quote(entry.getKey())).append(':').append(entry.getValue());
+        }
+    }
+
+    private static String quote(String text) {
+        StringBuilder ret = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                ret.append('\\').append(c);
+            } else if (c < 0x20) {
+                ret.append(String.format("\\u%04x", (int) c));
+            } else {
+                ret.append(c);
+            }
+        }
+        return ret.append('"').toString();
+    }
+
+    /**
+     * Times one stage from its creation until {@link Timer#stop()}.
+     */
+    public class Timer {
+        final private String stage;
+        final private long startTime;
+
+        private Timer(String stage) {
+            this.stage = stage;
+            startTime = System.nanoTime();
+        }
+
+        /**
+         * Records the stage as finished.
+         * @return Milliseconds the stage took.
+         */
+        public long stop() {
+            long millis = (System.nanoTime() - startTime) / 1000000;
+            record(stage, millis);
+            return millis;
+        }
+    }
+
+    /**
+     * Listens to every garbage collector of the JVM and keeps the most heap in use after a collection while watching.
+     */
+    private static class HeapWatcher implements NotificationListener {
+        final private Set<String> heapPools = new HashSet<>();
+        private long peak;
+        private long collections;
+        private boolean watching;
+
+        HeapWatcher() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+        }
+
+        void start() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                }
+            }
+            synchronized (this) {
+                watching = true;
+            }
+        }
+
+        void stop() {
+            synchronized (this) {
+                watching = false;
+            }
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    try {
+                        emitter.removeNotificationListener(this);
+                    } catch (ListenerNotFoundException e) {
+                        // the run was never started.
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                return;
+            }
+            GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> pool : info.getMemoryUsageAfterGc().entrySet()) {
+                if (heapPools.contains(pool.getKey())) {
+                    used += pool.getValue().getUsed();
+                }
+            }
+            synchronized (this) {
+                if (!watching) return;
+                collections++;
+                peak = Math.max(peak, used);
+            }
+        }
+
+        synchronized long getPeak() {
+            return peak;
+        }
+
+        synchronized long getCollections() {
+            return collections;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.jdbaptista.app.report;
+
+import org.apache.poi.ss.usermodel.*;
+
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Describes a {@link CellStyle} and its {@link Font} without belonging to any {@link Workbook}. Definitions are
+ * immutable; every setter returns a new definition, starting from a plain cell. Two definitions describing the same
+ * style are equal, which lets a {@link StyleTemplate} create the style only once per workbook.
+ */
+public final class StyleDefinition {
+    private boolean bold;
+    private boolean italic;
+    private short fontHeightInPoints;
+    private HorizontalAlignment alignment = HorizontalAlignment.GENERAL;
+    private VerticalAlignment verticalAlignment = VerticalAlignment.BOTTOM;
+    private BorderStyle borderTop = BorderStyle.NONE;
+    private BorderStyle borderRight = BorderStyle.NONE;
+    private BorderStyle borderBottom = BorderStyle.NONE;
+    private BorderStyle borderLeft = BorderStyle.NONE;
+    private short dataFormat;
+    private boolean wrapText;
+
+    public StyleDefinition() {}
+
+    private StyleDefinition(StyleDefinition other) {
+        bold = other.bold;
+        italic = other.italic;
+        fontHeightInPoints = other.fontHeightInPoints;
+        alignment = other.alignment;
+        verticalAlignment = other.verticalAlignment;
+        borderTop = other.borderTop;
+        borderRight = other.borderRight;
+        borderBottom = other.borderBottom;
+        borderLeft = other.borderLeft;
+        dataFormat = other.dataFormat;
+        wrapText = other.wrapText;
+    }
+
+    public StyleDefinition bold() {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.bold = true;
+        return ret;
+    }
+
+    public StyleDefinition italic() {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.italic = true;
+        return ret;
+    }
+
+    public StyleDefinition fontHeight(int points) {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.fontHeightInPoints = (short) points;
+        return ret;
+    }
+
+    public StyleDefinition alignment(HorizontalAlignment alignment) {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.alignment = alignment;
+        return ret;
+    }
+
+    public StyleDefinition verticalAlignment(VerticalAlignment verticalAlignment) {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.verticalAlignment = verticalAlignment;
+        return ret;
+    }
+
+    /**
+     * Sets all four borders at once.
+     */
+    public StyleDefinition border(BorderStyle border) {
+        return borders(border, border, border, border);
+    }
+
+    public StyleDefinition borders(BorderStyle top, BorderStyle right, BorderStyle bottom, BorderStyle left) {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.borderTop = top;
+        ret.borderRight = right;
+        ret.borderBottom = bottom;
+        ret.borderLeft = left;
+        return ret;
+    }
+
+    /**
+     * @param dataFormat A built in format index, e.g. 7 or 8 for currency, see {@link BuiltinFormats}.
+     */
+    public StyleDefinition dataFormat(int dataFormat) {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.dataFormat = (short) dataFormat;
+        return ret;
+    }
+
+    public StyleDefinition wrapText() {
+        StyleDefinition ret = new StyleDefinition(this);
+        ret.wrapText = true;
+        return ret;
+    }
+
+    /**
+     * Creates the style in a workbook, only setting what differs from a new style.
+     * @param wb Workbook the style is created in.
+     * @param fonts Fonts already created in the workbook by {@link StyleDefinition#fontKey()}, shared between styles.
+     */
+    CellStyle create(Workbook wb, HashMap<Integer, Font> fonts) {
+        CellStyle style = wb.createCellStyle();
+        if (fontKey() != 0) {
+            // plain cells keep the workbook's default font.
+            style.setFont(fonts.computeIfAbsent(fontKey(), key -> createFont(wb)));
+        }
+        if (alignment != HorizontalAlignment.GENERAL) style.setAlignment(alignment);
+        if (verticalAlignment != VerticalAlignment.BOTTOM) style.setVerticalAlignment(verticalAlignment);
+        if (borderTop != BorderStyle.NONE) style.setBorderTop(borderTop);
+        if (borderRight != BorderStyle.NONE) style.setBorderRight(borderRight);
+        if (borderBottom != BorderStyle.NONE) style.setBorderBottom(borderBottom);
+        if (borderLeft != BorderStyle.NONE) style.setBorderLeft(borderLeft);
+        if (dataFormat != 0) style.setDataFormat(dataFormat);
+        if (wrapText) style.setWrapText(true);
+        return style;
+    }
+
+    private Font createFont(Workbook wb) {
+        Font font = wb.createFont();
+        if (bold) font.setBold(true);
+        if (italic) font.setItalic(true);
+        if (fontHeightInPoints != 0) font.setFontHeightInPoints(fontHeightInPoints);
+        return font;
+    }
+
+    /**
+     * @return A key equal for definitions using the same font, 0 for the default font.
+     */
+    int fontKey() {
+        return (bold ? 1 : 0) | (italic ? 2 : 0) | (fontHeightInPoints << 2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StyleDefinition that = (StyleDefinition) o;
+        return bold == that.bold && italic == that.italic && fontHeightInPoints == that.fontHeightInPoints
+                && alignment == that.alignment && verticalAlignment == that.verticalAlignment
+                && borderTop == that.borderTop && borderRight == that.borderRight
+                && borderBottom == that.borderBottom && borderLeft == that.borderLeft
+                && dataFormat == that.dataFormat && wrapText == that.wrapText;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bold, italic, fontHeightInPoints, alignment, verticalAlignment, borderTop, borderRight,
+                borderBottom, borderLeft, dataFormat, wrapText);
+    }
+}
@@ -0,0 +1,44 @@
+package com.jdbaptista.app.report;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A named set of {@link StyleDefinition}, declared once and created in each new {@link Workbook} with
+ * {@link StyleTemplate#createStyles(Workbook)}. Names with equal definitions share one {@link CellStyle}, and
+ * definitions with the same font share one {@link Font}, so a workbook only holds the distinct styles it needs.
+ * A template is meant to be fully defined in a static initializer and only read afterwards, which makes it safe to
+ * share between threads writing different workbooks.
+ */
+public class StyleTemplate {
+    final private LinkedHashMap<String, StyleDefinition> definitions;
+
+    public StyleTemplate() {
+        definitions = new LinkedHashMap<>();
+    }
+
+    public StyleTemplate define(String name, StyleDefinition definition) {
+        definitions.put(name, definition);
+        return this;
+    }
+
+    /**
+     * Creates every style of the template in a workbook.
+     * @param wb Workbook the styles are created in.
+     * @return The style of each name defined in the template.
+     */
+    public HashMap<String, CellStyle> createStyles(Workbook wb) {
+        HashMap<StyleDefinition, CellStyle> created = new HashMap<>();
+        HashMap<Integer, Font> fonts = new HashMap<>();
+        HashMap<String, CellStyle> ret = new HashMap<>();
+        for (Map.Entry<String, StyleDefinition> entry : definitions.entrySet()) {
+            ret.put(entry.getKey(), created.computeIfAbsent(entry.getValue(), definition -> definition.create(wb, fonts)));
+        }
+        return ret;
+    }
+}
@@ -3,12 +3,16 @@ module com.jdbaptista.app {
     requires javafx.fxml;
     requires org.apache.poi.poi;
     requires org.apache.poi.ooxml;
+    requires java.xml;
+    requires java.management;
+    requires jdk.management;
 
 
     opens com.jdbaptista.app to javafx.fxml;
     exports com.jdbaptista.app;
     exports com.jdbaptista.app.labor;
     opens com.jdbaptista.app.labor to javafx.fxml;
+    exports com.jdbaptista.app.report;
     exports com.jdbaptista.app.labor.error;
     opens com.jdbaptista.app.labor.error to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.jdbaptista.app;
+
+import com.jdbaptista.app.labor.LaborGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchTest {
+
+    @Test
+    void runsLaborReports(@TempDir Path out) {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        int status = Batch.run(new String[] {"labor", "--out", out.toString(), "--threads", "2", "--full"},
+                new PrintStream(log, true));
+
+        assertEquals(Batch.SUCCESS, status, log.toString());
+        assertTrue(out.resolve("Jobsite 1.xlsx").toFile().isFile());
+        assertTrue(out.resolve(LaborGenerator.RUN_REPORT).toFile().isFile());
+    }
+
+    @Test
+    void failsWhenReportsCannotBeWritten(@TempDir Path out) {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        int status = Batch.run(new String[] {"labor", "--out", out.resolve("missing").toString(), "--full"},
+                new PrintStream(log, true));
+
+        assertEquals(Batch.FAILED, status, log.toString());
+    }
+
+    @Test
+    void rejectsInvalidArguments(@TempDir Path out) {
+        PrintStream log = new PrintStream(new ByteArrayOutputStream(), true);
+        assertEquals(Batch.USAGE, Batch.run(new String[0], log));
+        assertEquals(Batch.USAGE, Batch.run(new String[] {"payroll"}, log));
+        assertEquals(Batch.USAGE, Batch.run(new String[] {"labor", "--threads"}, log));
+        assertEquals(Batch.USAGE, Batch.run(new String[] {"labor", "--threads", "0"}, log));
+        assertEquals(Batch.USAGE, Batch.run(new String[] {"labor", "--in", out.resolve("Dailies.xlsx").toString()}, log));
+        assertEquals(Batch.USAGE, Batch.run(new String[] {"materials", "--in", out.resolve("none").toString()}, log));
+    }
+}
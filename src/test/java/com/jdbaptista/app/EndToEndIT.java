@@ -0,0 +1,264 @@
+package com.jdbaptista.app;
+
+import com.jdbaptista.app.labor.LaborGenerator;
+import com.jdbaptista.app.labor.LaborGeneratorBuilder;
+import com.jdbaptista.app.material.MaterialsGenerator;
+import com.jdbaptista.app.sample.SampleInput;
+import com.jdbaptista.app.sample.SampleInputBuilder;
+import org.apache.poi.ss.usermodel.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs both generators the way the window does on sample input of a few sizes, and compares every cell they write
+ * against the golden output in {@link EndToEndIT#GOLDEN}. Each run must also stay within the time and heap budgets in
+ * {@link EndToEndIT#BUDGETS}, as recorded in its run report, see {@link EndToEndIT#assertWithinBudget}. Run with:
+ * mvn verify
+ * <p>
+ * After a change that is meant to alter the reports, write the golden output again with: mvn verify -Dgolden.update
+ */
+class EndToEndIT {
+    static final Path GOLDEN = Path.of("src", "test", "resources", "golden");
+    static final Path BUDGETS = GOLDEN.resolve("budgets.properties");
+
+    enum Size {
+        SMALL(2_000, 20, 120, 4, 100),
+        MEDIUM(10_000, 60, 365, 26, 200),
+        LARGE(50_000, 200, 2 * 365, 52, 300);
+
+        final SampleInputBuilder input;
+
+        Size(int shifts, int addresses, int days, int weeks, int receiptsPerWeek) {
+            input = new SampleInputBuilder()
+                    .setSeed(shifts)
+                    .setShifts(shifts)
+                    .setAddresses(addresses)
+                    .setDays(days)
+                    .setWeeks(weeks)
+                    .setReceiptsPerWeek(receiptsPerWeek);
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Size.class)
+    void laborReports(Size size, @TempDir Path in, @TempDir Path out) throws Exception {
+        SampleInput input = size.input.build();
+        input.writeDailies(in.resolve(SampleInput.DAILIES).toFile());
+        input.writeSalaries(in.resolve(SampleInput.SALARIES).toFile());
+        input.writeWorkComp(in.resolve(SampleInput.WORK_COMP).toFile());
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        // leaves no garbage of earlier runs in the old generation, where collections during the run would not reach it.
+        System.gc();
+
+        boolean successful = new LaborGeneratorBuilder()
+                .setInFile(in.resolve(SampleInput.DAILIES).toFile())
+                .setWorkCompFile(in.resolve(SampleInput.WORK_COMP).toFile())
+                .setSalaryFile(in.resolve(SampleInput.SALARIES).toFile())
+                .setOutFolder(out.toString())
+                .setOutputLog(log)
+                .setStreamingInput(true)
+                .setStreamingOutput(true)
+                .setSkipUnchanged(true)
+                .setIncrementalInput(true)
+                .setRateSnapshots(true)
+                .setRunReport(true)
+                .build()
+                .run();
+
+        assertTrue(successful, log.toString());
+        assertMatchesGolden("labor-" + size.key(), out);
+        assertWithinBudget("labor." + size.key(), out.resolve(LaborGenerator.RUN_REPORT));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Size.class)
+    void materialsReport(Size size, @TempDir Path in, @TempDir Path out) throws Exception {
+        size.input.build().writeReceipts(in.toFile());
+        MaterialsGenerator generator = new MaterialsGenerator(in.toString(), out.resolve("Materials Reports").toString());
+        generator.setParallelism(Runtime.getRuntime().availableProcessors());
+        generator.setRunReport(true);
+        // see laborReports.
+        System.gc();
+
+        String log = generator.run();
+
+        assertTrue(generator.isSuccessful(), log);
+        assertMatchesGolden("materials-" + size.key(), out);
+        assertWithinBudget("materials." + size.key(), out.resolve(MaterialsGenerator.RUN_REPORT));
+    }
+
+    /**
+     * Compares every cell of the workbooks in a folder against the golden cells, or writes the golden cells if
+     * golden.update is set. The golden cells are a gzipped dump, see {@link EndToEndIT#write}, read a line at a time so
+     * that the largest runs are never held twice in memory. When a cell differs, the failure names the first one, and
+     * the cells of the run are dumped to target/end-to-end to be compared in full with the unzipped golden cells.
+     */
+    private static void assertMatchesGolden(String name, Path out) throws IOException {
+        List<String> cells = dump(out);
+        Path golden = GOLDEN.resolve(name + ".txt.gz");
+        if (System.getProperty("golden.update") != null) {
+            Files.createDirectories(GOLDEN);
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(golden)),
+                    StandardCharsets.UTF_8)) {
+                write(cells, writer);
+            }
+            return;
+        }
+        assertTrue(Files.isRegularFile(golden), golden + " is missing, write it with -Dgolden.update.");
+
+        int index = 0;
+        int differences = 0;
+        String firstExpected = null;
+        String firstActual = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(golden)), StandardCharsets.UTF_8))) {
+            String sheet = "";
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("!")) {
+                    sheet = line.substring(1) + "!";
+                    continue;
+                }
+                String expected = sheet + line;
+                String actual = index < cells.size() ? cells.get(index) : null;
+                if (!expected.equals(actual) && differences++ == 0) {
+                    firstExpected = expected;
+                    firstActual = actual;
+                }
+                index++;
+            }
+        }
+        if (index < cells.size()) {
+            if (differences == 0) {
+                firstActual = cells.get(index);
+            }
+            differences += cells.size() - index;
+        }
+        if (differences == 0) return;
+
+        Path dump = Path.of("target", "end-to-end", name + ".txt");
+        Files.createDirectories(dump.getParent());
+        try (Writer writer = Files.newBufferedWriter(dump)) {
+            write(cells, writer);
+        }
+        fail(name + " differs from the golden output in " + differences + " cells, first "
+                + describe(firstExpected, firstActual) + ". Its cells are in " + dump.toAbsolutePath());
+    }
+
+    /**
+     * Writes a dump with the file and sheet of its cells on a line of their own starting with "!", followed by one
+     * "cell=value" line per cell of that sheet, which compresses to half the size of the full lines.
+     */
+    private static void write(List<String> cells, Writer writer) throws IOException {
+        String sheet = null;
+        for (String cell : cells) {
+            int end = cell.indexOf('!', cell.indexOf('!') + 1);
+            if (sheet == null || !cell.startsWith(sheet)) {
+                sheet = cell.substring(0, end + 1);
+                writer.write("!" + cell.substring(0, end) + "\n");
+            }
+            writer.write(cell.substring(end + 1) + "\n");
+        }
+    }
+
+    /**
+     * @return Where two lines of a dump first differ: the value of the same cell, or the cells found in place of each
+     * other when a cell was added or left out.
+     */
+    private static String describe(String expected, String actual) {
+        if (expected == null) return "an extra cell " + actual;
+        if (actual == null) return "a missing cell " + expected;
+        // values may hold '!' or '=', but file and sheet names and cell addresses hold neither.
+        String cell = expected.substring(0, expected.indexOf('=', expected.indexOf('!', expected.indexOf('!') + 1)));
+        if (actual.startsWith(cell + "=")) {
+            return "cell " + cell + " which is \"" + actual.substring(cell.length() + 1) + "\" but should be \""
+                    + expected.substring(cell.length() + 1) + "\"";
+        }
+        return "cell " + actual + " in place of " + expected;
+    }
+
+    /**
+     * @return Every cell of every workbook in a folder as "file!sheet!cell=value", in file, sheet and cell order.
+     */
+    private static List<String> dump(Path folder) throws IOException {
+        String[] names = folder.toFile().list((dir, name) -> name.endsWith(".xlsx"));
+        assertNotNull(names);
+        Arrays.sort(names);
+        List<String> ret = new ArrayList<>();
+        DataFormatter formatter = new DataFormatter();
+        for (String name : names) {
+            try (Workbook wb = WorkbookFactory.create(folder.resolve(name).toFile(), null, true)) {
+                for (Sheet sheet : wb) {
+                    for (Row row : sheet) {
+                        for (Cell cell : row) {
+                            ret.add(name + "!" + sheet.getSheetName() + "!" + cell.getAddress() + "="
+                                    + formatter.formatCellValue(cell));
+                        }
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Fails if the last run in a run report took longer or kept more heap alive than its budget. The heap is the most
+     * left in use after a garbage collection during the run, see {@link com.jdbaptista.app.report.RunMetrics}, so
+     * garbage not yet collected does not count. A budget can be changed for one build with -D followed by its key,
+     * and every time budget can be scaled for a slower machine with -Dbudget.timeScale, e.g. 2 to double them.
+     */
+    private static void assertWithinBudget(String key, Path runReport) throws IOException {
+        Properties budgets = new Properties();
+        try (InputStream in = Files.newInputStream(BUDGETS)) {
+            budgets.load(in);
+        }
+        List<String> runs = Files.readAllLines(runReport);
+        String run = runs.get(runs.size() - 1);
+        long millis = read(run, "totalMillis");
+        long heap = read(run, "liveHeapBytes");
+        long millisBudget = Math.round(budget(budgets, key + ".millis")
+                * Double.parseDouble(System.getProperty("budget.timeScale", "1")));
+        long heapBudget = budget(budgets, key + ".heapBytes");
+        String measured = key + " took " + millis + " ms and kept " + heap + " bytes of heap alive";
+        assertTrue(millis <= millisBudget, measured + ", over its time budget of " + millisBudget + " ms.");
+        assertTrue(heap <= heapBudget, measured + ", over its heap budget of " + heapBudget + " bytes.");
+    }
+
+    private static long budget(Properties budgets, String key) {
+        String value = System.getProperty(key, budgets.getProperty(key));
+        assertNotNull(value, "No budget " + key + " in " + BUDGETS);
+        return Long.parseLong(value.strip());
+    }
+
+    private static long read(String run, String field) {
+        Matcher matcher = Pattern.compile("\"" + field + "\":(\\d+)").matcher(run);
+        assertTrue(matcher.find(), run);
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,125 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.labor.error.DatedTableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoubleDatedTableTest {
+
+    @Test
+    void getValueFindsRangeOfDate() throws DatedTableException {
+        DoubleDatedTable data = new DoubleDatedTable();
+        data.addColumn("Employee 1", 1);
+        data.addColumn("Employee 2", 2);
+        data.addRangeByColNum(1, 20.0, LocalDate.of(2019, 1, 1));
+        data.addRangeByColNum(2, 16.0, LocalDate.of(2019, 1, 1));
+        data.addRangeByColNum(1, 25.0, LocalDate.of(2020, 1, 3));
+        int column = data.getColumnId("Employee 1");
+
+        assertEquals(20.0, data.getValue(column, (int) LocalDate.of(2020, 1, 2).toEpochDay()));
+        assertEquals(25.0, data.getValue(column, (int) LocalDate.of(2020, 1, 3).toEpochDay()));
+        assertEquals(25.0, data.getValue("Employee 1", LocalDate.of(2030, 1, 1)));
+        assertEquals(16.0, data.getValue("Employee 2", LocalDate.of(2030, 1, 1)));
+        assertThrows(DatedTableException.class, () -> data.getValue(column, (int) LocalDate.of(2018, 1, 1).toEpochDay()));
+        assertThrows(DatedTableException.class, () -> data.getValue(-1, 0));
+        assertEquals(-1, data.getColumnId("Employee 3"));
+        assertThrows(DatedTableException.class, () -> data.addRangeByColNum(1, 30.0, LocalDate.of(2020, 1, 3)));
+    }
+
+    @Test
+    void getValuesMatchesGetValue() throws DatedTableException {
+        DoubleDatedTable data = new DoubleDatedTable();
+        for (int column = 0; column < 5; column++) {
+            data.addColumn("Employee " + column, column + 1);
+            for (int i = 0; i < 20; i++) {
+                data.addRangeByColNum(column + 1, column * 100 + i, LocalDate.of(2000, 1, 1).plusDays(90L * i + column));
+            }
+        }
+        int count = 5_000;
+        Random random = new Random(3);
+        int[] columnIds = new int[count];
+        int[] epochDays = new int[count];
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            columnIds[i] = random.nextInt(6) - 1; // includes the missing column -1
+            epochDays[i] = (int) LocalDate.of(1999, 12, 1).toEpochDay() + random.nextInt(2500);
+            keys[i] = ((long) epochDays[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = (int) keys[i];
+
+        double[] out = new double[count];
+        data.getValues(order, count, columnIds, epochDays, out);
+        for (int i = 0; i < count; i++) {
+            double expected;
+            try {
+                expected = data.getValue(columnIds[i], epochDays[i]);
+            } catch (DatedTableException e) {
+                expected = Double.NaN;
+            }
+            assertEquals(expected, out[i]);
+        }
+        int[] reversed = {order[count - 1], order[0]};
+        assertThrows(IllegalArgumentException.class, () -> data.getValues(reversed, 2, columnIds, epochDays, out));
+    }
+
+    @Test
+    void loadsNumericLabels() throws IOException, DatedTableException {
+        DoubleDatedTable data = DoubleDatedTable.loadExcelData(new File("files/input/WCPercentages.xlsx"));
+
+        assertEquals(6, data.getColumnCount());
+        assertEquals(9.79, data.getValue("800", LocalDate.of(2020, 1, 1)));
+        assertEquals(6.41, data.getValue("800", LocalDate.of(2021, 4, 1)));
+    }
+
+    @Test
+    void snapshotMatchesSourceUntilItChanges(@TempDir Path folder) throws IOException, DatedTableException {
+        File source = folder.resolve("WCPercentages.xlsx").toFile();
+        Files.copy(Path.of("files/input/WCPercentages.xlsx"), source.toPath());
+        DoubleDatedTable loaded = DatedTableSnapshot.load(source, folder.toString());
+        File snapshot = DatedTableSnapshot.getSnapshotFile(source, folder.toString());
+        assertTrue(snapshot.isFile());
+
+        // same size and time, so the unreadable source is never opened.
+        long modified = source.lastModified();
+        Files.write(source.toPath(), new byte[(int) source.length()]);
+        assertTrue(source.setLastModified(modified));
+        DoubleDatedTable cached = DatedTableSnapshot.load(source, folder.toString());
+        assertEquals(loaded.getColumnCount(), cached.getColumnCount());
+        for (int column = 0; column < loaded.getColumnCount(); column++) {
+            assertEquals(loaded.getLabel(column), cached.getLabel(column));
+            for (LocalDate date = LocalDate.of(2019, 1, 1); date.getYear() < 2023; date = date.plusDays(7)) {
+                int epochDay = (int) date.toEpochDay();
+                assertEquals(value(loaded, column, epochDay), value(cached, column, epochDay), date.toString());
+            }
+        }
+
+        // once the source changes it is loaded again.
+        Files.copy(Path.of("files/input/WCPercentages.xlsx"), source.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(source.setLastModified(modified + 10_000));
+        assertEquals(loaded.getColumnCount(), DatedTableSnapshot.load(source, folder.toString()).getColumnCount());
+        Files.write(source.toPath(), new byte[(int) source.length()]);
+        assertTrue(source.setLastModified(modified + 20_000));
+        assertThrows(IOException.class, () -> DatedTableSnapshot.load(source, folder.toString()));
+    }
+
+    private static double value(DoubleDatedTable data, int column, int epochDay) {
+        try {
+            return data.getValue(column, epochDay);
+        } catch (DatedTableException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.jdbaptista.app.labor;
+
+import com.jdbaptista.app.labor.error.LaborGeneratorException;
+import org.apache.poi.ss.usermodel.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaborGeneratorTest {
+
+    @Test
+    void parallelCalculationMatchesSequential(@TempDir Path sequentialOut, @TempDir Path parallelOut) throws Exception {
+        createGenerator(sequentialOut).setParallelism(1).build().run();
+        createGenerator(parallelOut).setParallelism(4).build().run();
+
+        File[] reports = sequentialOut.toFile().listFiles();
+        assertNotNull(reports);
+        assertTrue(reports.length > 0);
+        for (File report : reports) {
+            assertEquals(dump(report), dump(parallelOut.resolve(report.getName()).toFile()), report.getName());
+        }
+    }
+
+    @Test
+    void streamingOutputMatchesInMemoryOutput(@TempDir Path inMemoryOut, @TempDir Path streamingOut) throws Exception {
+        createGenerator(inMemoryOut).build().run();
+        createGenerator(streamingOut).setStreamingOutput(true).build().run();
+
+        File[] reports = inMemoryOut.toFile().listFiles();
+        assertNotNull(reports);
+        assertTrue(reports.length > 0);
+        for (File report : reports) {
+            assertEquals(dump(report), dump(streamingOut.resolve(report.getName()).toFile()), report.getName());
+        }
+    }
+
+    @Test
+    void inMemoryInputMatchesStreamingInput(@TempDir Path streamingOut, @TempDir Path inMemoryOut) throws Exception {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        createGenerator(streamingOut).build().run();
+        assertTrue(createGenerator(inMemoryOut).setStreamingInput(false).setOutputLog(log).build().run(),
+                log.toString());
+
+        assertFalse(log.toString().contains("Skipped this row"), log.toString());
+        assertSameReports(streamingOut, inMemoryOut);
+    }
+
+    @Test
+    void logsEveryFailedReport(@TempDir Path out) throws Exception {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        createGenerator(out.resolve("missing")).setParallelism(2).setOutputLog(log).build().run();
+
+        String text = log.toString();
+        assertTrue(text.contains("generating the report for Jobsite 1"), text);
+        assertTrue(text.contains("generating the report for Jobsite 2"), text);
+        assertFalse(text.contains("Reports generated successfully."), text);
+    }
+
+    @Test
+    void skipsUnchangedReports(@TempDir Path out) throws Exception {
+        createGenerator(out).setSkipUnchanged(true).build().run();
+        File[] reports = out.toFile().listFiles((dir, name) -> name.endsWith(".xlsx"));
+        assertNotNull(reports);
+        assertTrue(reports.length > 1);
+        for (File report : reports) {
+            assertTrue(report.setLastModified(0));
+        }
+        assertTrue(reports[0].delete());
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        createGenerator(out).setSkipUnchanged(true).setOutputLog(log).build().run();
+
+        String text = log.toString();
+        assertTrue(text.contains((reports.length - 1) + " unchanged reports were skipped."), text);
+        assertTrue(reports[0].lastModified() > 0, "deleted report is written again");
+        for (int i = 1; i < reports.length; i++) {
+            assertEquals(0, reports[i].lastModified(), reports[i].getName());
+        }
+    }
+
+    @Test
+    void incrementalInputMatchesFullRead(@TempDir Path in, @TempDir Path incrementalOut, @TempDir Path fullOut)
+            throws Exception {
+        File dailies = in.resolve("Dailies.xlsx").toFile();
+        writeDailies(dailies, 20, false);
+        createGenerator(incrementalOut, dailies).setIncrementalInput(true).build().run();
+        assertTrue(incrementalOut.resolve(IngestCheckpoint.FILE_NAME).toFile().isFile());
+
+        // rows appended since the checkpoint are merged into the saved shifts.
+        writeDailies(dailies, Integer.MAX_VALUE, false);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        createGenerator(incrementalOut, dailies).setIncrementalInput(true).setOutputLog(log).build().run();
+        createGenerator(fullOut, dailies).build().run();
+        assertFalse(log.toString().contains("Reading it from the start."), log.toString());
+        assertSameReports(fullOut, incrementalOut);
+
+        // a changed row forces the whole input to be read again.
+        writeDailies(dailies, Integer.MAX_VALUE, true);
+        log = new ByteArrayOutputStream();
+        createGenerator(incrementalOut, dailies).setIncrementalInput(true).setOutputLog(log).build().run();
+        createGenerator(fullOut, dailies).build().run();
+        assertTrue(log.toString().contains("Reading it from the start."), log.toString());
+        assertSameReports(fullOut, incrementalOut);
+    }
+
+    @Test
+    void staleCheckpointLogsSkippedRowsOnce(@TempDir Path in, @TempDir Path out) throws Exception {
+        File dailies = in.resolve("Dailies.xlsx").toFile();
+        for (boolean streaming : new boolean[]{true, false}) {
+            Path reports = Files.createDirectories(out.resolve(streaming ? "streaming" : "in-memory"));
+            writeDailies(dailies, 20, false, 5);
+            createGenerator(reports, dailies).setStreamingInput(streaming).setIncrementalInput(true).build().run();
+
+            writeDailies(dailies, 20, true, 5);
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            createGenerator(reports, dailies).setStreamingInput(streaming).setIncrementalInput(true)
+                    .setRunReport(true).setOutputLog(log).build().run();
+
+            assertTrue(log.toString().contains("Reading it from the start."), log.toString());
+
+            // rows covered by a checkpoint that holds are still counted and logged, once.
+            ByteArrayOutputStream restoredLog = new ByteArrayOutputStream();
+            createGenerator(reports, dailies).setStreamingInput(streaming).setIncrementalInput(true)
+                    .setRunReport(true).setOutputLog(restoredLog).build().run();
+            assertFalse(restoredLog.toString().contains("Reading it from the start."), restoredLog.toString());
+
+            List<String> runs = Files.readAllLines(reports.resolve(LaborGenerator.RUN_REPORT));
+            for (String text : List.of(log.toString(), restoredLog.toString())) {
+                assertTrue(text.contains("at row 6. Skipped this row."), text);
+                assertEquals(text.indexOf("Skipped this row."), text.lastIndexOf("Skipped this row."), text);
+            }
+            for (String run : runs) {
+                assertTrue(run.contains("\"rowsRead\":20,"), run);
+                assertTrue(run.contains("\"rowsSkipped\":1,"), run);
+            }
+        }
+    }
+
+    @Test
+    void pipelinedOutputMatchesStaged(@TempDir Path stagedOut, @TempDir Path pipelinedOut,
+                                      @TempDir Path parallelOut) throws Exception {
+        createGenerator(stagedOut).build().run();
+        assertTrue(createGenerator(pipelinedOut).setPipelined(true).setSkipUnchanged(true).build().run());
+        assertTrue(createGenerator(parallelOut).setPipelined(true).setParallelism(4).build().run());
+        assertSameReports(stagedOut, pipelinedOut);
+        assertSameReports(stagedOut, parallelOut);
+    }
+
+    @Test
+    void readsDatesWhateverTheLocale(@TempDir Path englishOut, @TempDir Path frenchOut) throws Exception {
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.ENGLISH);
+            assertTrue(createGenerator(englishOut).build().run());
+            Locale.setDefault(Locale.FRANCE);
+            assertTrue(createGenerator(frenchOut).build().run());
+        } finally {
+            Locale.setDefault(locale);
+        }
+        assertSameReports(englishOut, frenchOut);
+    }
+
+    @Test
+    void rejectsPipelinedIncrementalInput(@TempDir Path out) {
+        assertThrows(LaborGeneratorException.class,
+                () -> createGenerator(out).setPipelined(true).setIncrementalInput(true).build());
+    }
+
+    @Test
+    void reportsProgressUntilCancelled(@TempDir Path out) throws Exception {
+        ArrayList<String> updates = new ArrayList<>();
+        LaborGenerator[] generator = new LaborGenerator[1];
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        generator[0] = createGenerator(out).setSkipUnchanged(true).setOutputLog(log)
+                .setProgressListener((stage, done, total, perSecond) -> {
+                    updates.add(stage + " " + done + "/" + total);
+                    if (stage.equals("Writing reports")) generator[0].cancel();
+                }).build();
+
+        assertFalse(generator[0].run());
+        // a slow machine may also pass on counts while reading.
+        updates.removeIf(update -> update.matches("Reading shifts [1-9]\\d*/-1"));
+        assertEquals("Reading shifts 0/-1", updates.get(0));
+        assertTrue(updates.get(1).matches("Reading shifts (\\d+)/\\1"), updates.get(1));
+        assertTrue(updates.get(2).matches("Writing reports 0/[1-9]\\d*"), updates.get(2));
+        assertEquals(3, updates.size());
+        assertTrue(log.toString().contains("Report generation was cancelled."), log.toString());
+        String[] written = out.toFile().list((dir, name) -> name.endsWith(".xlsx") || name.equals(ReportManifest.FILE_NAME));
+        assertNotNull(written);
+        assertEquals(0, written.length);
+    }
+
+    @Test
+    void cancelsWhileReadingShifts(@TempDir Path out) throws Exception {
+        ArrayList<String> updates = new ArrayList<>();
+        LaborGenerator[] generator = new LaborGenerator[1];
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        generator[0] = createGenerator(out).setOutputLog(log).setRunReport(true)
+                .setProgressListener((stage, done, total, perSecond) -> {
+                    updates.add(stage + " " + done + "/" + total);
+                    generator[0].cancel();
+                }).build();
+
+        assertFalse(generator[0].run());
+        assertEquals(List.of("Reading shifts 0/-1"), updates);
+        assertTrue(log.toString().contains("Report generation was cancelled."), log.toString());
+        String run = Files.readAllLines(out.resolve(LaborGenerator.RUN_REPORT)).get(0);
+        assertTrue(run.contains("\"rowsRead\":0"), run);
+    }
+
+    @Test
+    void appendsEveryRunToTheRunReport(@TempDir Path out) throws Exception {
+        createGenerator(out).setRunReport(true).build().run();
+        createGenerator(out).setRunReport(true).setStreamingOutput(true).setParallelism(2).build().run();
+
+        List<String> runs = Files.readAllLines(out.resolve(LaborGenerator.RUN_REPORT));
+        assertEquals(2, runs.size());
+        for (String run : runs) {
+            assertTrue(run.startsWith("{\"generator\":\"labor\","), run);
+            assertTrue(run.contains("\"successful\":true"), run);
+            assertTrue(run.matches(".*\"stageMillis\":\\{.*\"workComp\":\\d+.*}.*"), run);
+            assertTrue(run.matches(".*\"stageMillis\":\\{.*\"write\":\\d+.*}.*"), run);
+            assertTrue(run.matches(".*\"rowsRead\":[1-9]\\d*.*"), run);
+            assertTrue(run.matches(".*\"cellsWritten\":[1-9]\\d*.*"), run);
+            assertTrue(run.matches(".*\"collections\":\\d+,\"liveHeapBytes\":\\d+}"), run);
+        }
+        // both runs wrote the same cells, though not the same bytes.
+        assertEquals(runs.get(0).replaceAll(".*(\"cellsWritten\":\\d+).*", "$1"),
+                runs.get(1).replaceAll(".*(\"cellsWritten\":\\d+).*", "$1"));
+    }
+
+    @Test
+    void stopsWhenAnyInputFailsToLoad(@TempDir Path in, @TempDir Path out) throws Exception {
+        File salaries = in.resolve("Salaries.xlsx").toFile();
+        Files.write(salaries.toPath(), new byte[64]);
+        createGenerator(out).setSalaryFile(salaries).build().run();
+
+        String[] written = out.toFile().list();
+        assertNotNull(written);
+        assertEquals(0, written.length);
+    }
+
+    @Test
+    void reportsMissingRatesWhateverTheParallelism(@TempDir Path in, @TempDir Path out) throws Exception {
+        File dailies = in.resolve("Dailies.xlsx").toFile();
+        try (Workbook wb = WorkbookFactory.create(new FileInputStream("files/input/Dailies.xlsx"))) {
+            wb.getSheetAt(0).getRow(0).getCell(0).setCellValue("Nobody");
+            try (FileOutputStream stream = new FileOutputStream(dailies)) {
+                wb.write(stream);
+            }
+        }
+        for (int parallelism : new int[]{1, 4}) {
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            Path reports = out.resolve(String.valueOf(parallelism));
+            boolean successful = createGenerator(reports, dailies).setParallelism(parallelism).setOutputLog(log)
+                    .build().run();
+
+            assertFalse(successful, log.toString());
+            assertTrue(log.toString().contains("It is probable that Nobody"), log.toString());
+            String[] written = reports.toFile().list();
+            assertTrue(written == null || written.length == 0);
+        }
+    }
+
+    @Test
+    void rejectsParallelismBelowOne(@TempDir Path out) {
+        assertThrows(LaborGeneratorException.class, () -> createGenerator(out).setParallelism(0).build());
+    }
+
+    private static LaborGeneratorBuilder createGenerator(Path out) {
+        return createGenerator(out, new File("files/input/Dailies.xlsx"));
+    }
+
+    private static LaborGeneratorBuilder createGenerator(Path out, File dailies) {
+        return new LaborGeneratorBuilder()
+                .setInFile(dailies)
+                .setWorkCompFile(new File("files/input/WCPercentages.xlsx"))
+                .setSalaryFile(new File("files/input/Salaries.xlsx"))
+                .setOutFolder(out.toString())
+                .setStreamingInput(true);
+    }
+
+    private static void writeDailies(File target, int rows, boolean changeFirstRow) throws IOException {
+        writeDailies(target, rows, changeFirstRow, -1);
+    }
+
+    /**
+     * Writes the first rows of the bundled shift input to a new file, optionally changing the hours of the first row.
+     * @param unreadableRow A row whose hours are made unreadable, or -1 for none.
+     */
+    private static void writeDailies(File target, int rows, boolean changeFirstRow, int unreadableRow)
+            throws IOException {
+        try (Workbook wb = WorkbookFactory.create(new FileInputStream("files/input/Dailies.xlsx"))) {
+            Sheet sheet = wb.getSheetAt(0);
+            for (int i = sheet.getLastRowNum(); i >= rows; i--) {
+                Row row = sheet.getRow(i);
+                if (row != null) sheet.removeRow(row);
+            }
+            if (changeFirstRow) {
+                sheet.getRow(0).getCell(4).setCellValue(9.5);
+            }
+            if (unreadableRow >= 0) {
+                sheet.getRow(unreadableRow).getCell(4).setCellValue("many");
+            }
+            try (FileOutputStream out = new FileOutputStream(target)) {
+                wb.write(out);
+            }
+        }
+    }
+
+    private static void assertSameReports(Path expected, Path actual) throws IOException {
+        File[] reports = expected.toFile().listFiles((dir, name) -> name.endsWith(".xlsx"));
+        assertNotNull(reports);
+        assertTrue(reports.length > 0);
+        for (File report : reports) {
+            assertEquals(dump(report), dump(actual.resolve(report.getName()).toFile()), report.getName());
+        }
+    }
+
+    /**
+     * @return Every cell of the workbook as displayed, one row per line.
+     */
+    private static String dump(File report) throws IOException {
+        StringBuilder ret = new StringBuilder();
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook wb = WorkbookFactory.create(report, null, true)) {
+            for (Sheet sheet : wb) {
+                ret.append(sheet.getSheetName()).append('\n');
+                for (Row row : sheet) {
+                    ret.append(row.getRowNum());
+                    for (Cell cell : row) {
+                        ret.append('|').append(formatter.formatCellValue(cell));
+                    }
+                    ret.append('\n');
+                }
+            }
+        }
+        return ret.toString();
+    }
+}
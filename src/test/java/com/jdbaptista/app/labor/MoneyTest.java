@@ -0,0 +1,36 @@
+package com.jdbaptista.app.labor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void roundsToNearest() {
+        assertEquals(1235, Money.toCents(12.345));
+        assertEquals(1234, Money.toCents(12.3449));
+        // 0.125 is held exactly, 1.005 is held as a double just below 1.005.
+        assertEquals(13, Money.toCents(0.125));
+        assertEquals(100, Money.toCents(1.005));
+        assertEquals(979, Money.toBasisPoints(9.79));
+        assertEquals(750, Money.toHundredths(7.5));
+        // 12345 cents at 7.7% is 950.565 cents.
+        assertEquals(951, Money.applyRate(12345, Money.TAX_BASIS_POINTS));
+        // 10050 cents at 0.5% is 50.25 cents, 10100 cents at 0.5% is 50.5 cents.
+        assertEquals(50, Money.applyRate(10050, 50));
+        assertEquals(51, Money.applyRate(10100, 50));
+    }
+
+    @Test
+    void sumsWithoutDrift() {
+        long cents = 0;
+        double dollars = 0;
+        for (int i = 0; i < 1_000; i++) {
+            cents += Money.toCents(0.1);
+            dollars += 0.1;
+        }
+        assertEquals(100.0, Money.toDollars(cents));
+        assertNotEquals(100.0, dollars);
+    }
+}
@@ -0,0 +1,88 @@
+package com.jdbaptista.app.labor;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftIndexTest {
+
+    @Test
+    void groupsRowsByJobAndWeek() {
+        ShiftTable table = new ShiftTable();
+        ShiftIndex index = new ShiftIndex(table);
+        LocalDate monday = LocalDate.of(2020, 1, 6);
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 1", monday, "Framing", 8, "800", 1), "Jan"));
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 1", monday.plusDays(1), "Framing", 8, "800", 1), "Jan"));
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 1", monday.plusDays(7), "Framing", 8, "800", 1), "Jan"));
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 2", monday, "Framing", 8, "800", 1), "Jan"));
+
+        ArrayList<Job> jobs = index.getJobs();
+        assertEquals(2, jobs.size());
+        assertEquals("Jobsite 1", jobs.get(0).getAddress());
+        assertEquals(2, jobs.get(0).getWeeks().size());
+        assertEquals(2, jobs.get(0).getWeek(Week.key(2020, 2)).getRowCount());
+        assertEquals(1, jobs.get(0).getWeek(Week.key(2020, 3)).getRowCount());
+        assertEquals(1, jobs.get(1).getWeeks().size());
+    }
+
+    @Test
+    void rejectsDuplicateShifts() {
+        ShiftTable table = new ShiftTable();
+        ShiftIndex index = new ShiftIndex(table);
+        LocalDate date = LocalDate.of(2020, 1, 6);
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 1", date, "Framing", 8, "800", 1), "Jan"));
+        assertFalse(index.add(table.addRow("Employee 1", "Jobsite 1", date, "Framing", 8, "800", 1), "Jan"));
+        table.removeLastRow();
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 1", date, "Framing", 7.5, "800", 1), "Jan"));
+        assertTrue(index.add(table.addRow("Employee 1", "Jobsite 2", date, "Framing", 8, "800", 1), "Jan"));
+        assertEquals(3, table.size());
+        assertEquals(2, index.getJobs().get(0).getWeeks().get(0).getRowCount());
+    }
+
+    /**
+     * Ingests growing numbers of rows concentrated on a few jobs, so that weeks hold thousands of shifts, and checks
+     * that the time per row stays flat instead of growing with the row count.
+     */
+    @Test
+    @Tag("benchmark")
+    void ingestIsLinearInRowCount() {
+        ingest(100_000); // warm up
+        int[] sizes = {50_000, 100_000, 200_000, 400_000};
+        double[] nanosPerRow = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < 3; run++) {
+                best = Math.min(best, ingest(sizes[i]));
+            }
+            nanosPerRow[i] = (double) best / sizes[i];
+            System.out.printf("ingest %,d rows: %,d ms, %.1f ns/row%n", sizes[i], best / 1_000_000, nanosPerRow[i]);
+        }
+        // quadratic ingest would be 8 times slower per row at the last size.
+        assertTrue(nanosPerRow[sizes.length - 1] < nanosPerRow[0] * 3,
+                "time per row grew from " + nanosPerRow[0] + "ns to " + nanosPerRow[sizes.length - 1] + "ns");
+    }
+
+    private static long ingest(int rows) {
+        String[] workers = new String[60];
+        for (int i = 0; i < workers.length; i++) workers[i] = "Employee " + i;
+        String[] addresses = {"Jobsite 1", "Jobsite 2", "Jobsite 3", "Jobsite 4", "Jobsite 5"};
+        String[] tasks = {"Framing", "Painting", "Drywall", "Cleaning"};
+        String[] types = {"800", "400", "600"};
+        LocalDate start = LocalDate.of(2020, 1, 1);
+
+        long startTime = System.nanoTime();
+        ShiftTable table = new ShiftTable();
+        ShiftIndex index = new ShiftIndex(table);
+        for (int i = 0; i < rows; i++) {
+            LocalDate date = start.plusDays(i / 1_000);
+            int row = table.addRow(workers[i % workers.length], addresses[i % addresses.length], date,
+                    tasks[i % tasks.length], 1 + (i % 97) / 8d, types[i % types.length], 1);
+            if (!index.add(row, "Jan")) table.removeLastRow();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,35 @@
+package com.jdbaptista.app.labor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingSheetReaderTest {
+
+    @Test
+    void readsCellsAsText() throws Exception {
+        ArrayList<String> first = new ArrayList<>();
+        new StreamingSheetReader(new File("files/input/Dailies.xlsx")).read((rowNum, cells) -> {
+            if (rowNum == 0) first.addAll(cells);
+        });
+
+        assertTrue(first.size() >= 6, first.toString());
+        assertTrue(first.get(2).matches("\\d\\d-[A-Z][a-z]{2}-\\d{4}"), first.get(2));
+        assertFalse(first.get(5).endsWith(".0"), first.get(5));
+    }
+
+    @Test
+    void stopsAtRowThatThrows() {
+        int[] handled = new int[1];
+        StreamingSheetReader reader = new StreamingSheetReader(new File("files/input/Dailies.xlsx"));
+
+        assertThrows(CancellationException.class, () -> reader.read((rowNum, cells) -> {
+            if (++handled[0] == 3) throw new CancellationException();
+        }));
+        assertEquals(3, handled[0]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.jdbaptista.app.material;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatterTest {
+
+    @Test
+    void groupsUnsortedContainersByFirstAddress() throws IOException {
+        LocalDate date = LocalDate.of(2020, 1, 2);
+        Container[] containers = {
+                new Container("Jobsite 2", "Ace", date, 10),
+                new Container("Jobsite 1", "Ace", date, 1.25),
+                new Container("Jobsite 2", "Ace", date, 5),
+                new Container("Jobsite 1", "Home Depot", date, 2),
+        };
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            new Formatter(wb).writeWeek(sheet, containers, "Week Ending 1_4_2020");
+
+            assertEquals(List.of(
+                    "Week Ending 1_4_2020",
+                    "Client|Vendor|Date|Amount",
+                    "",
+                    "Jobsite 2|Ace|1/2/2020|$10.00",
+                    "Jobsite 2|Ace|1/2/2020|$5.00",
+                    "Jobsite 2|Ace Total||$15.00",
+                    "Jobsite 2|Grand Total||$15.00",
+                    "",
+                    "Jobsite 1|Ace|1/2/2020|$1.25",
+                    "Jobsite 1|Home Depot|1/2/2020|$2.00",
+                    "Jobsite 1|Grand Total||$3.25",
+                    "",
+                    "VENDOR TOTALS|||",
+                    // vendors in hash map order, as they always were.
+                    "Home Depot|||$2.00",
+                    "Ace|||$16.25",
+                    "GRAND TOTAL|||$18.25"), rows(sheet));
+        }
+    }
+
+    private static List<String> rows(Sheet sheet) {
+        DataFormatter formatter = new DataFormatter();
+        List<String> ret = new ArrayList<>();
+        for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+            Row row = sheet.getRow(i);
+            StringBuilder line = new StringBuilder();
+            if (row != null) {
+                for (Cell cell : row) {
+                    if (cell.getColumnIndex() > 0) line.append('|');
+                    line.append(formatter.formatCellValue(cell));
+                }
+            }
+            ret.add(line.toString());
+        }
+        return ret;
+    }
+}
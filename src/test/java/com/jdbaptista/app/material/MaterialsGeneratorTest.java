@@ -0,0 +1,101 @@
+package com.jdbaptista.app.material;
+
+import com.jdbaptista.app.sample.SampleInputBuilder;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaterialsGeneratorTest {
+
+    @Test
+    void parallelParsingMatchesSequential(@TempDir Path in, @TempDir Path sequentialOut, @TempDir Path parallelOut)
+            throws Exception {
+        new SampleInputBuilder().setWeeks(12).setReceiptsPerWeek(50).build().writeReceipts(in.toFile());
+        writeBadReceipt(in.resolve("Materials 12-5-20.xlsx").toFile());
+        writeBadReceipt(in.resolve("Materials 12-12-20.xlsx").toFile());
+
+        MaterialsGenerator sequential = new MaterialsGenerator(in.toString(), sequentialOut.resolve("out").toString());
+        String sequentialLog = sequential.run();
+        MaterialsGenerator parallel = new MaterialsGenerator(in.toString(), parallelOut.resolve("out").toString());
+        parallel.setParallelism(4);
+        String parallelLog = parallel.run();
+
+        assertTrue(parallel.isSuccessful(), parallelLog);
+        assertEquals(sequentialLog, parallelLog);
+        assertEquals("""
+                Something went wrong reading the receipts at row 2. Skipped this row.
+                Something went wrong reading the receipts at row 2. Skipped this row.
+                Generated material reports successfully.
+                """, parallelLog);
+        assertEquals(dump(sequentialOut.resolve("out.xlsx").toFile()), dump(parallelOut.resolve("out.xlsx").toFile()));
+    }
+
+    @Test
+    void stopsAtTheFirstUnreadableFile(@TempDir Path in, @TempDir Path out) throws Exception {
+        new SampleInputBuilder().setWeeks(8).setReceiptsPerWeek(20).build().writeReceipts(in.toFile());
+        writeBadReceipt(in.resolve("Materials 1-1-20.xlsx").toFile());
+        try (OutputStream file = new FileOutputStream(in.resolve("Materials 1-2-20.xlsx").toFile())) {
+            file.write("not a workbook".getBytes());
+        }
+
+        MaterialsGenerator generator = new MaterialsGenerator(in.toString(), out.resolve("out").toString());
+        generator.setParallelism(4);
+        String log = generator.run();
+
+        assertFalse(generator.isSuccessful());
+        assertTrue(log.startsWith("Something went wrong reading the receipts at row 2. Skipped this row.\n"), log);
+        assertTrue(log.endsWith("Failed to write material reports.\nInput file may be open.\n"), log);
+        assertFalse(out.resolve("out.xlsx").toFile().exists());
+    }
+
+    @Test
+    void rejectsNoThreads(@TempDir Path in) {
+        MaterialsGenerator generator = new MaterialsGenerator(in.toString(), in.resolve("out").toString());
+        assertThrows(IllegalArgumentException.class, () -> generator.setParallelism(0));
+    }
+
+    /**
+     * Writes a receipt file whose second row has no amount.
+     */
+    private static void writeBadReceipt(File file) throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = wb.createSheet();
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue("Jobsite 1");
+            row.createCell(1).setCellValue("Vendor 1");
+            row.createCell(2).setCellValue("01-Dec-2020");
+            row.createCell(3).setCellValue(12.5);
+            row = sheet.createRow(1);
+            row.createCell(0).setCellValue("Jobsite 2");
+            row.createCell(1).setCellValue("Vendor 2");
+            wb.write(out);
+        }
+    }
+
+    private static String dump(File report) throws IOException {
+        StringBuilder ret = new StringBuilder();
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook wb = WorkbookFactory.create(report, null, true)) {
+            for (Sheet sheet : wb) {
+                ret.append(sheet.getSheetName()).append('\n');
+                for (Row row : sheet) {
+                    ret.append(row.getRowNum());
+                    for (Cell cell : row) {
+                        ret.append('|').append(formatter.formatCellValue(cell));
+                    }
+                    ret.append('\n');
+                }
+            }
+        }
+        return ret.toString();
+    }
+}
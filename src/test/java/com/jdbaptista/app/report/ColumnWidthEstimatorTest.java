@@ -0,0 +1,50 @@
+package com.jdbaptista.app.report;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnWidthEstimatorTest {
+
+    @Test
+    void sizesColumnsToTheirWidestCell() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            HashMap<String, CellStyle> styles = new StyleTemplate()
+                    .define("BOLD", new StyleDefinition().bold())
+                    .define("CURRENCY", new StyleDefinition().dataFormat(7))
+                    .createStyles(wb);
+            Sheet sheet = wb.createSheet();
+            int untouched = sheet.getColumnWidth(3);
+            ColumnWidthEstimator widths = new ColumnWidthEstimator();
+
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue("Total");
+            row.createCell(1).setCellValue("Total");
+            row.getCell(1).setCellStyle(styles.get("BOLD"));
+            row.createCell(2).setCellValue(34976.61);
+            row.getCell(2).setCellStyle(styles.get("CURRENCY"));
+            widths.measure(row);
+            row = sheet.createRow(1);
+            row.createCell(0).setCellValue("A much longer title spanning the columns");
+            widths.exclude(new CellRangeAddress(1, 1, 0, 3));
+            widths.measure(row);
+            row = sheet.createRow(2);
+            row.createCell(2).setCellValue(1.5);
+            widths.measure(row);
+            widths.apply(sheet, 3);
+
+            assertTrue(sheet.getColumnWidth(0) < sheet.getColumnWidth(1), "bold is wider");
+            assertTrue(sheet.getColumnWidth(0) < 256 * 10, "merged cells are skipped");
+            assertTrue(sheet.getColumnWidth(2) > sheet.getColumnWidth(1), "currency is formatted");
+            assertEquals(untouched, sheet.getColumnWidth(3));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.jdbaptista.app.report;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunMetricsTest {
+
+    @Test
+    void timesFromStart() throws InterruptedException {
+        RunMetrics metrics = new RunMetrics("test");
+        Thread.sleep(300);
+        metrics.start();
+        metrics.stop();
+
+        String run = metrics.toJson(true);
+        long millis = Long.parseLong(run.replaceAll(".*\"totalMillis\":(\\d+).*", "$1"));
+        assertTrue(millis < 300, run);
+    }
+
+    @Test
+    void watchesHeapOnlyWhileRunning() throws InterruptedException {
+        RunMetrics running = new RunMetrics("running");
+        RunMetrics stopped = new RunMetrics("stopped");
+        stopped.start();
+        stopped.stop();
+        running.start();
+        long[] kept = new long[1 << 20];
+        // collection notifications arrive on another thread.
+        for (int i = 0; i < 100 && running.getCollections() == 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        running.stop();
+
+        assertTrue(running.getCollections() > 0);
+        assertTrue(running.getLiveHeap() >= kept.length * 8L, running.toJson(true));
+        assertEquals(0, kept[0]);
+        assertEquals(0, stopped.getCollections());
+        assertEquals(0, stopped.getLiveHeap());
+    }
+}
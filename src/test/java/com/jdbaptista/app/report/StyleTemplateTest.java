@@ -0,0 +1,51 @@
+package com.jdbaptista.app.report;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyleTemplateTest {
+
+    @Test
+    void sharesIdenticalStylesAndFonts() throws IOException {
+        StyleDefinition boxed = new StyleDefinition().border(BorderStyle.THIN);
+        StyleTemplate template = new StyleTemplate()
+                .define("HEADER", boxed.bold())
+                .define("CLIENT", boxed.bold())
+                .define("TOTAL", boxed.alignment(HorizontalAlignment.RIGHT).bold())
+                .define("PLAIN", boxed);
+
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            int stylesBefore = wb.getNumCellStyles();
+            int fontsBefore = wb.getNumberOfFonts();
+            HashMap<String, CellStyle> styles = template.createStyles(wb);
+
+            assertSame(styles.get("HEADER"), styles.get("CLIENT"));
+            assertNotSame(styles.get("HEADER"), styles.get("TOTAL"));
+            assertEquals(styles.get("HEADER").getFontIndex(), styles.get("TOTAL").getFontIndex());
+            assertEquals(0, styles.get("PLAIN").getFontIndex());
+            assertEquals(stylesBefore + 3, wb.getNumCellStyles());
+            assertEquals(fontsBefore + 1, wb.getNumberOfFonts());
+            assertTrue(wb.getFontAt(styles.get("TOTAL").getFontIndex()).getBold());
+            assertEquals(HorizontalAlignment.RIGHT, styles.get("TOTAL").getAlignment());
+            assertEquals(BorderStyle.THIN, styles.get("PLAIN").getBorderLeft());
+        }
+    }
+
+    @Test
+    void definitionsAreImmutable() {
+        StyleDefinition plain = new StyleDefinition();
+        StyleDefinition bold = plain.bold();
+
+        assertNotEquals(plain, bold);
+        assertEquals(new StyleDefinition(), plain);
+        assertEquals(new StyleDefinition().bold(), bold);
+    }
+}
@@ -0,0 +1,229 @@
+package com.jdbaptista.app.sample;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes made up input files of any size in the layout the generators read, for the end-to-end suite and the
+ * benchmarks to run the generators at production scale. Workbooks are streamed to disk, so millions of shifts can be
+ * written. Each file draws from its own random sequence of the seed, so any one of them can be written alone and
+ * still matches the rest.
+ */
+public class SampleInput {
+    public static final String DAILIES = "Dailies.xlsx";
+    public static final String SALARIES = "Salaries.xlsx";
+    public static final String WORK_COMP = "WCPercentages.xlsx";
+    public static final String RECEIPTS = "Weekly Receipts";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter RECEIPT_NAME_FORMAT = DateTimeFormatter.ofPattern("M-d-yy");
+    private static final String[] TASKS = {"Framing", "Drywall", "Painting", "Roofing", "Plumbing", "Electrical",
+            "Cleaning", "Demolition", "Concrete", "Write Reports"};
+    private static final String[] CODES = {"800", "400", "600", "401", "201", "8810"};
+    // rows kept in memory while streaming a workbook.
+    private static final int WINDOW = 100;
+
+    final private long seed;
+    final private LocalDate start;
+    final private int days;
+    final private int shifts;
+    final private int rateChangeDays;
+    final private int weeks;
+    final private int receiptsPerWeek;
+    final private String[] workers;
+    final private String[] addresses;
+    final private String[] codes;
+    final private String[] vendors;
+
+    SampleInput(SampleInputBuilder builder) {
+        seed = builder.getSeed();
+        start = builder.getStart();
+        days = builder.getDays();
+        shifts = builder.getShifts();
+        rateChangeDays = builder.getRateChangeDays();
+        weeks = builder.getWeeks();
+        receiptsPerWeek = builder.getReceiptsPerWeek();
+        workers = names("Employee ", builder.getWorkers());
+        addresses = names("Jobsite ", builder.getAddresses());
+        vendors = names("Vendor ", builder.getVendors());
+        codes = new String[builder.getWorkCompCodes()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = i < CODES.length ? CODES[i] : String.valueOf(9000 + i);
+        }
+    }
+
+    /**
+     * Writes every input file into a folder laid out like files/input.
+     */
+    public void writeAll(File folder) throws IOException {
+        writeDailies(new File(folder, DAILIES));
+        writeSalaries(new File(folder, SALARIES));
+        writeWorkComp(new File(folder, WORK_COMP));
+        File receipts = new File(folder, RECEIPTS);
+        if (!receipts.isDirectory() && !receipts.mkdirs()) {
+            throw new IOException("Could not create " + receipts + ".");
+        }
+        writeReceipts(receipts);
+    }
+
+    /**
+     * Writes the shifts in date order, spread over the days. A worker or jobsite is as likely as any other, and about
+     * one shift in eight is overtime.
+     */
+    public void writeDailies(File file) throws IOException {
+        Random random = new Random(seed);
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(WINDOW)) {
+            Sheet sheet = wb.createSheet();
+            String date = null;
+            long day = -1;
+            for (int i = 0; i < shifts; i++) {
+                if ((long) i * days / shifts != day) {
+                    day = (long) i * days / shifts;
+                    date = start.plusDays(day).format(DATE_FORMAT);
+                }
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(workers[random.nextInt(workers.length)]);
+                row.createCell(1).setCellValue(addresses[random.nextInt(addresses.length)]);
+                row.createCell(2).setCellValue(date);
+                row.createCell(3).setCellValue(TASKS[random.nextInt(TASKS.length)]);
+                row.createCell(4).setCellValue((random.nextInt(16) + 1) / 2.0);
+                row.createCell(5).setCellValue(codes[random.nextInt(codes.length)]);
+                if (random.nextInt(8) == 0) {
+                    row.createCell(6).setCellValue("1.5");
+                }
+            }
+            save(wb, file);
+        }
+    }
+
+    /**
+     * Writes an hourly wage of each worker from the start, each changing by up to two dollars every rate change.
+     */
+    public void writeSalaries(File file) throws IOException {
+        writeRates(file, "Salaries", workers, 16, 45, 2, new Random(seed + 1));
+    }
+
+    /**
+     * Writes a percentage of each work comp code from the start, each changing by up to one point every rate change.
+     */
+    public void writeWorkComp(File file) throws IOException {
+        writeRates(file, "WC", codes, 1, 26, 1, new Random(seed + 2));
+    }
+
+    /**
+     * Writes one receipt file per week into a folder, named by the Saturday ending the week. A receipt is dated on a
+     * day of its week.
+     */
+    public void writeReceipts(File folder) throws IOException {
+        Random random = new Random(seed + 3);
+        LocalDate ending = start.with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+        for (int week = 0; week < weeks; week++, ending = ending.plusWeeks(1)) {
+            try (SXSSFWorkbook wb = new SXSSFWorkbook(WINDOW)) {
+                Sheet sheet = wb.createSheet();
+                CellStyle dateStyle = createDateStyle(wb);
+                for (int i = 0; i < receiptsPerWeek; i++) {
+                    Row row = sheet.createRow(i);
+                    row.createCell(0).setCellValue(addresses[random.nextInt(addresses.length)]);
+                    row.createCell(1).setCellValue(vendors[random.nextInt(vendors.length)]);
+                    Cell cell = row.createCell(2);
+                    cell.setCellValue(ending.minusDays(random.nextInt(7)));
+                    cell.setCellStyle(dateStyle);
+                    row.createCell(3).setCellValue(cents(random, 5, 2000));
+                }
+                save(wb, new File(folder, "Materials " + ending.format(RECEIPT_NAME_FORMAT) + ".xlsx"));
+            }
+        }
+    }
+
+    /**
+     * Writes a rate table: labels across the first row, then a dated row every rate change until the last day of
+     * shifts.
+     */
+    private void writeRates(File file, String corner, String[] labels, double low, double high, double change,
+                            Random random) throws IOException {
+        double[] rates = new double[labels.length];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = cents(random, low, high);
+        }
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(WINDOW)) {
+            Sheet sheet = wb.createSheet();
+            CellStyle dateStyle = createDateStyle(wb);
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue(corner);
+            for (int i = 0; i < labels.length; i++) {
+                row.createCell(i + 1).setCellValue(labels[i]);
+            }
+            int rowNum = 1;
+            for (long day = 0; day < days; day += rateChangeDays, rowNum++) {
+                row = sheet.createRow(rowNum);
+                Cell cell = row.createCell(0);
+                cell.setCellValue(start.plusDays(day));
+                cell.setCellStyle(dateStyle);
+                for (int i = 0; i < labels.length; i++) {
+                    if (day > 0) {
+                        rates[i] = Math.max(low, rates[i] + cents(random, -change, change));
+                        rates[i] = Math.round(rates[i] * 100) / 100.0;
+                    }
+                    row.createCell(i + 1).setCellValue(rates[i]);
+                }
+            }
+            save(wb, file);
+        }
+    }
+
+    private static CellStyle createDateStyle(SXSSFWorkbook wb) {
+        CellStyle ret = wb.createCellStyle();
+        ret.setDataFormat(wb.createDataFormat().getFormat("dd-mmm-yyyy"));
+        return ret;
+    }
+
+    private static double cents(Random random, double low, double high) {
+        return Math.round((low + random.nextDouble() * (high - low)) * 100) / 100.0;
+    }
+
+    private static void save(SXSSFWorkbook wb, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            wb.write(out);
+        } finally {
+            wb.dispose();
+        }
+    }
+
+    private static String[] names(String prefix, int count) {
+        String[] ret = new String[count];
+        for (int i = 0; i < count; i++) {
+            ret[i] = prefix + (i + 1);
+        }
+        return ret;
+    }
+
+    public String[] getWorkers() {
+        return workers.clone();
+    }
+
+    public String[] getAddresses() {
+        return addresses.clone();
+    }
+
+    public String[] getWorkCompCodes() {
+        return codes.clone();
+    }
+
+    public String[] getVendors() {
+        return vendors.clone();
+    }
+}
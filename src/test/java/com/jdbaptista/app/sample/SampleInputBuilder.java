@@ -0,0 +1,174 @@
+package com.jdbaptista.app.sample;
+
+import java.time.LocalDate;
+
+/**
+ * Configures a {@link SampleInput}. Every setting is optional, and the defaults are roughly the size of a year of a
+ * busy company.
+ */
+public class SampleInputBuilder {
+    private long seed;
+    private LocalDate start = LocalDate.of(2020, 1, 1);
+    private int days = 3 * 365;
+    private int shifts = 100_000;
+    private int workers = 60;
+    private int addresses = 200;
+    private int workCompCodes = 6;
+    private int rateChangeDays = 90;
+    private int weeks = 52;
+    private int receiptsPerWeek = 200;
+    private int vendors = 50;
+
+    public SampleInput build() {
+        validatePositive(days, "Days");
+        validatePositive(shifts, "Shifts");
+        validatePositive(workers, "Workers");
+        validatePositive(addresses, "Addresses");
+        validatePositive(workCompCodes, "Work comp codes");
+        validatePositive(rateChangeDays, "Days between rate changes");
+        validatePositive(weeks, "Weeks");
+        validatePositive(receiptsPerWeek, "Receipts per week");
+        validatePositive(vendors, "Vendors");
+        if (start == null)
+            throw new IllegalArgumentException("The start date is required.");
+        return new SampleInput(this);
+    }
+
+    protected void validatePositive(int value, String name) {
+        if (value < 1)
+            throw new IllegalArgumentException(name + " must be at least 1, was " + value + ".");
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getShifts() {
+        return shifts;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getAddresses() {
+        return addresses;
+    }
+
+    public int getWorkCompCodes() {
+        return workCompCodes;
+    }
+
+    public int getRateChangeDays() {
+        return rateChangeDays;
+    }
+
+    public int getWeeks() {
+        return weeks;
+    }
+
+    public int getReceiptsPerWeek() {
+        return receiptsPerWeek;
+    }
+
+    public int getVendors() {
+        return vendors;
+    }
+
+    /**
+     * The same seed and settings always write the same data. Defaults to 0.
+     */
+    public SampleInputBuilder setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * The first day of shifts, rates and receipts. Defaults to January 1st, 2020.
+     */
+    public SampleInputBuilder setStart(LocalDate start) {
+        this.start = start;
+        return this;
+    }
+
+    /**
+     * How many days the shifts are spread over, in date order. Defaults to three years.
+     */
+    public SampleInputBuilder setDays(int days) {
+        this.days = days;
+        return this;
+    }
+
+    /**
+     * Rows of Dailies.xlsx. Defaults to 100,000.
+     */
+    public SampleInputBuilder setShifts(int shifts) {
+        this.shifts = shifts;
+        return this;
+    }
+
+    /**
+     * Columns of Salaries.xlsx. Defaults to 60.
+     */
+    public SampleInputBuilder setWorkers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Jobsites that shifts and receipts are spread over, one labor report each. Defaults to 200.
+     */
+    public SampleInputBuilder setAddresses(int addresses) {
+        this.addresses = addresses;
+        return this;
+    }
+
+    /**
+     * Columns of WCPercentages.xlsx. Defaults to 6.
+     */
+    public SampleInputBuilder setWorkCompCodes(int workCompCodes) {
+        this.workCompCodes = workCompCodes;
+        return this;
+    }
+
+    /**
+     * Days between the dated rows of Salaries.xlsx and WCPercentages.xlsx, so how often rates change over the days
+     * of shifts. Defaults to 90.
+     */
+    public SampleInputBuilder setRateChangeDays(int rateChangeDays) {
+        this.rateChangeDays = rateChangeDays;
+        return this;
+    }
+
+    /**
+     * Weekly receipt files, one week after another from the start. Defaults to 52.
+     */
+    public SampleInputBuilder setWeeks(int weeks) {
+        this.weeks = weeks;
+        return this;
+    }
+
+    /**
+     * Rows of each weekly receipt file. Defaults to 200.
+     */
+    public SampleInputBuilder setReceiptsPerWeek(int receiptsPerWeek) {
+        this.receiptsPerWeek = receiptsPerWeek;
+        return this;
+    }
+
+    /**
+     * Vendors that receipts are spread over. Defaults to 50.
+     */
+    public SampleInputBuilder setVendors(int vendors) {
+        this.vendors = vendors;
+        return this;
+    }
+}
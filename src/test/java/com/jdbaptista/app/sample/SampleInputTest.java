@@ -0,0 +1,105 @@
+package com.jdbaptista.app.sample;
+
+import com.jdbaptista.app.labor.LaborGeneratorBuilder;
+import com.jdbaptista.app.material.MaterialsGenerator;
+import org.apache.poi.ss.usermodel.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleInputTest {
+
+    @Test
+    void sameSeedWritesSameInput(@TempDir Path first, @TempDir Path second, @TempDir Path other) throws Exception {
+        createBuilder().build().writeAll(first.toFile());
+        createBuilder().build().writeAll(second.toFile());
+        createBuilder().setSeed(8).build().writeAll(other.toFile());
+
+        String[] receipts = first.resolve(SampleInput.RECEIPTS).toFile().list();
+        assertNotNull(receipts);
+        assertEquals(3, receipts.length);
+        for (String name : new String[] {SampleInput.DAILIES, SampleInput.SALARIES, SampleInput.WORK_COMP}) {
+            assertEquals(dump(first.resolve(name).toFile()), dump(second.resolve(name).toFile()), name);
+        }
+        for (String name : receipts) {
+            String path = SampleInput.RECEIPTS + File.separator + name;
+            assertEquals(dump(first.resolve(path).toFile()), dump(second.resolve(path).toFile()), name);
+        }
+        assertNotEquals(dump(first.resolve(SampleInput.DAILIES).toFile()),
+                dump(other.resolve(SampleInput.DAILIES).toFile()));
+    }
+
+    @Test
+    void generatorsReadEveryRow(@TempDir Path in, @TempDir Path out) throws Exception {
+        createBuilder().build().writeAll(in.toFile());
+
+        for (boolean streaming : new boolean[] {true, false}) {
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            boolean successful = new LaborGeneratorBuilder()
+                    .setInFile(in.resolve(SampleInput.DAILIES).toFile())
+                    .setWorkCompFile(in.resolve(SampleInput.WORK_COMP).toFile())
+                    .setSalaryFile(in.resolve(SampleInput.SALARIES).toFile())
+                    .setOutFolder(out.toString())
+                    .setOutputLog(log)
+                    .setStreamingInput(streaming)
+                    .build()
+                    .run();
+            assertTrue(successful, log.toString());
+            assertFalse(log.toString().contains("Skipped"), log.toString());
+            assertEquals(12, out.toFile().list((dir, name) -> name.startsWith("Jobsite ")).length);
+        }
+
+        MaterialsGenerator materials = new MaterialsGenerator(in.resolve(SampleInput.RECEIPTS).toString(),
+                out.resolve("Materials Reports").toString());
+        String log = materials.run();
+        assertTrue(materials.isSuccessful(), log);
+        assertFalse(log.contains("Skipped"), log);
+    }
+
+    @Test
+    void rejectsEmptySettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SampleInputBuilder().setShifts(0).build());
+        assertThrows(IllegalArgumentException.class, () -> new SampleInputBuilder().setRateChangeDays(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> new SampleInputBuilder().setStart(null).build());
+    }
+
+    private static SampleInputBuilder createBuilder() {
+        return new SampleInputBuilder()
+                .setSeed(7)
+                .setShifts(1000)
+                .setDays(120)
+                .setWorkers(8)
+                .setAddresses(12)
+                .setRateChangeDays(30)
+                .setWeeks(3)
+                .setReceiptsPerWeek(40)
+                .setVendors(5);
+    }
+
+    /**
+     * @return Every cell of a workbook as text, one row per line.
+     */
+    private static String dump(File file) throws IOException {
+        StringBuilder ret = new StringBuilder();
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook wb = WorkbookFactory.create(file, null, true)) {
+            for (Sheet sheet : wb) {
+                for (Row row : sheet) {
+                    String[] cells = new String[row.getLastCellNum()];
+                    for (Cell cell : row) {
+                        cells[cell.getColumnIndex()] = formatter.formatCellValue(cell);
+                    }
+                    ret.append(Arrays.toString(cells)).append('\n');
+                }
+            }
+        }
+        return ret.toString();
+    }
+}